@@ -0,0 +1,57 @@
+package com.example.demo.benchmark;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.security.JwtKeyRing;
+import com.example.demo.security.JwtPrincipal;
+import com.example.demo.service.JwtService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Token signing (JJWT builder + Jackson + HMAC) and verification, as done on every
+ * login/refresh and on every filter cache miss.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        JwtKeyRing keyRing = new JwtKeyRing("", Base64.getEncoder().encodeToString(secret), event -> { });
+        jwtService = new JwtService(keyRing, new SimpleMeterRegistry(), 900);
+        token = jwtService.generateToken("3f2b8c1e-0c57-4a57-9d0e-2b7a1d9f6c11", "lam123");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken("3f2b8c1e-0c57-4a57-9d0e-2b7a1d9f6c11", "lam123");
+    }
+
+    @Benchmark
+    public JwtPrincipal parseToken() {
+        return jwtService.parseToken(token);
+    }
+}
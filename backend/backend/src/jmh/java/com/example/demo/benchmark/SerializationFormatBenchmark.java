@@ -0,0 +1,134 @@
+package com.example.demo.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.demo.dto.ProductView;
+import com.example.demo.util.ProductProtobufCodec;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+
+/**
+ * Encode/decode cost of one default-size page of GET /api/products in each format the
+ * endpoint can negotiate. Payload sizes are printed once in setup; pair the timings with
+ * -prof gc for bytes allocated per page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationFormatBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+    private static final TypeReference<List<ProductView>> PAGE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper json = mapper(null);
+    private final ObjectMapper cbor = mapper(new CBORFactory());
+    private final ObjectMapper smile = mapper(new SmileFactory());
+
+    private List<ProductView> page;
+    private byte[] jsonBytes;
+    private byte[] cborBytes;
+    private byte[] smileBytes;
+    private byte[] protobufBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        page = new ArrayList<>(PAGE_SIZE);
+        OffsetDateTime createdAt = OffsetDateTime.of(2025, 1, 1, 8, 0, 0, 0, ZoneOffset.UTC);
+        UUID creator = UUID.randomUUID();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            OffsetDateTime time = createdAt.plusSeconds(i * 37L).plusNanos(i * 1000L);
+            page.add(new ProductView(UUID.randomUUID(), "Laptop Dell XPS 13 #" + i,
+                    "Máy mỏng nhẹ, pin 12 giờ, màn hình 13.4 inch.", 25990000.0 + i, 15 + i, "ACTIVE",
+                    creator, time, time, (long) i));
+        }
+        jsonBytes = encodeJson();
+        cborBytes = encodeCbor();
+        smileBytes = encodeSmile();
+        protobufBytes = encodeProtobuf();
+        System.out.printf("%nbytes per page of %d: json=%d cbor=%d smile=%d protobuf=%d%n",
+                PAGE_SIZE, jsonBytes.length, cborBytes.length, smileBytes.length, protobufBytes.length);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws IOException {
+        return json.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] encodeCbor() throws IOException {
+        return cbor.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] encodeSmile() throws IOException {
+        return smile.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] encodeProtobuf() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(4096);
+        CodedOutputStream out = CodedOutputStream.newInstance(buffer);
+        ProductProtobufCodec.writeList(page, out);
+        out.flush();
+        return buffer.toByteArray();
+    }
+
+    @Benchmark
+    public List<ProductView> decodeJson() throws IOException {
+        return json.readValue(jsonBytes, PAGE);
+    }
+
+    @Benchmark
+    public List<ProductView> decodeCbor() throws IOException {
+        return cbor.readValue(cborBytes, PAGE);
+    }
+
+    @Benchmark
+    public List<ProductView> decodeSmile() throws IOException {
+        return smile.readValue(smileBytes, PAGE);
+    }
+
+    @Benchmark
+    public List<ProductView> decodeProtobuf() throws IOException {
+        return ProductProtobufCodec.readList(CodedInputStream.newInstance(protobufBytes));
+    }
+
+    // cấu hình giống converter của ứng dụng (ngày dạng ISO-8601 như Spring Boot)
+    private static ObjectMapper mapper(JsonFactory factory) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (factory != null) {
+            builder.factory(factory);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.util.XssSanitizer;
+
+/**
+ * Per-call cost of the XSS check on clean and malicious input of typical sizes.
+ * Clean input is the common case and the worst case: every pattern has to be ruled out.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class XssSanitizerBenchmark {
+
+    @Param({"name", "description", "script"})
+    public String input;
+
+    private String value;
+
+    @Setup
+    public void setUp() {
+        switch (input) {
+            case "name" -> value = "Laptop Dell XPS 13 - 16GB RAM";
+            case "description" -> value = "Máy mỏng nhẹ, pin 12 giờ, màn hình 13.4 inch. ".repeat(40);
+            case "script" -> value = "Laptop <img src=x onerror=alert(1)> giảm giá";
+            default -> throw new IllegalArgumentException(input);
+        }
+    }
+
+    @Benchmark
+    public boolean containsDangerousContent() {
+        return XssSanitizer.containsDangerousContent(value);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.demo.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Cho phép tối đa N connection được mượn cùng lúc, ai đến trước được trước (fair semaphore).
+ *
+ * Meant for virtual threads (spring.threads.virtual.enabled): thousands of requests may reach the
+ * repositories at once, but only pool-size of them can do useful work. They queue on
+ * the semaphore (a parked virtual thread costs a few KB) in arrival order instead of
+ * spinning in the pool's own wait, and the queue is visible as db.admission.waiting.
+ * A permit is held from getConnection() until the connection is closed (returned to
+ * the pool), so it covers repository calls and whole transactions alike.
+ *
+ * Metrics: db.admission.waiting, db.admission.available, db.admission.wait (timer),
+ * db.admission.timeouts.
+ */
+public class AdmissionControlledDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final long timeoutMs;
+    private final Timer waitTimer;
+    private final Counter timeouts;
+
+    public AdmissionControlledDataSource(DataSource target, int permits, long timeoutMs, MeterRegistry meterRegistry) {
+        super(target);
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive");
+        }
+        this.permits = new Semaphore(permits, true);
+        this.timeoutMs = timeoutMs;
+
+        Gauge.builder("db.admission.waiting", this.permits, Semaphore::getQueueLength)
+                .description("Threads waiting for a database connection permit")
+                .register(meterRegistry);
+        Gauge.builder("db.admission.available", this.permits, Semaphore::availablePermits)
+                .description("Free database connection permits")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("db.admission.wait")
+                .description("Time spent waiting for a database connection permit")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.timeouts = Counter.builder("db.admission.timeouts")
+                .description("Requests that gave up waiting for a database connection permit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return guard(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return guard(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection permit", e);
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            timeouts.increment();
+            throw new SQLTransientConnectionException(
+                    "Timed out after " + timeoutMs + " ms waiting for a database connection permit");
+        }
+    }
+
+    // trả permit đúng 1 lần khi connection được close (trả về pool)
+    private Connection guard(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        InvocationHandler handler = (proxy, method, args) -> {
+            if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                try {
+                    connection.close();
+                } finally {
+                    if (released.compareAndSet(false, true)) {
+                        permits.release();
+                    }
+                }
+                return null;
+            }
+            return invoke(connection, method, args);
+        };
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[] {Connection.class}, handler);
+    }
+
+    private static Object invoke(Connection connection, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(connection, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    int availablePermits() {
+        return permits.availablePermits();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.config;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Binary response formats, selected with the Accept header:
+ * application/cbor, application/x-jackson-smile and application/x-protobuf
+ * (ProductView and lists of it only, see src/main/resources/proto/product.proto).
+ *
+ * JSON stays first in the converter list, so clients sending Accept: *&#47;* (or nothing)
+ * keep getting JSON.
+ */
+@Configuration
+public class ContentNegotiationConfig implements WebMvcConfigurer {
+
+    public static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    /** Formats the pre-serialized JSON paths of ProductController have to step aside for. */
+    public static final List<MediaType> BINARY_MEDIA_TYPES =
+            List.of(MediaType.APPLICATION_CBOR, SMILE, ProductProtobufHttpMessageConverter.PROTOBUF);
+
+    // Spring MVC đã tự thêm converter CBOR/Smile (sau JSON) khi có thư viện, nhưng với ObjectMapper mặc định;
+    // bean cùng kiểu thay đúng vị trí đó và dùng cấu hình spring.jackson.* như JSON (vd. ngày dạng ISO-8601)
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    // Thêm vào cuối danh sách: một bean HttpMessageConverter mới sẽ được xếp trước JSON
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new ProductProtobufHttpMessageConverter());
+    }
+}
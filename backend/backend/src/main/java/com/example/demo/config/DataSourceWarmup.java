@@ -0,0 +1,95 @@
+package com.example.demo.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Mở sẵn connection tới DB lúc khởi động, trước khi Tomcat nhận request.
+ *
+ * Runs after all singletons are created and before the web server starts, so the TCP +
+ * TLS handshake and authentication of each pooled connection happen during startup
+ * instead of inside the first requests after a deploy. The connections are held at the
+ * same time (so the pool really opens that many), validated, and returned to the pool.
+ * A failure is logged and does not stop the application; the pool retries on demand.
+ *
+ * app.datasource.warmup.connections = 0 means the pool's minimum-idle.
+ */
+@Component
+public class DataSourceWarmup implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSourceWarmup.class);
+
+    private final DataSource dataSource;
+    private final boolean enabled;
+    private final int connections;
+    private final int validationTimeoutSeconds;
+
+    public DataSourceWarmup(DataSource dataSource,
+                            @Value("${app.datasource.warmup.enabled:true}") boolean enabled,
+                            @Value("${app.datasource.warmup.connections:0}") int connections,
+                            @Value("${app.datasource.warmup.validation-timeout-seconds:5}") int validationTimeoutSeconds) {
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+        this.connections = connections;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        int target = resolveTarget();
+        long start = System.nanoTime();
+
+        List<Connection> opened = new ArrayList<>(target);
+        try {
+            for (int i = 0; i < target; i++) {
+                Connection connection = dataSource.getConnection();
+                opened.add(connection);
+                if (!connection.isValid(validationTimeoutSeconds)) {
+                    log.warn("Warm-up connection {} failed validation", i + 1);
+                }
+            }
+            log.info("Warmed up {} database connection(s) in {} ms",
+                    opened.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (SQLException e) {
+            log.warn("Database warm-up stopped after {} connection(s): {}", opened.size(), e.getMessage());
+        } finally {
+            for (Connection connection : opened) {
+                try {
+                    connection.close(); // trả về pool, không đóng kết nối vật lý
+                } catch (SQLException e) {
+                    log.debug("Could not return warm-up connection", e);
+                }
+            }
+        }
+    }
+
+    private int resolveTarget() {
+        try {
+            // có thể bị bọc (AdmissionControlledDataSource khi spring.threads.virtual.enabled=true)
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+                int max = hikari.getMaximumPoolSize();
+                int wanted = connections > 0 ? connections : hikari.getMinimumIdle();
+                return Math.max(1, Math.min(wanted, max));
+            }
+        } catch (SQLException e) {
+            log.debug("Could not unwrap the connection pool", e);
+        }
+        return Math.max(1, connections);
+    }
+}
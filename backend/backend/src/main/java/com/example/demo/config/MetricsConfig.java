@@ -0,0 +1,89 @@
+package com.example.demo.config;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Map;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Metrics that Spring Boot does not publish on its own.
+ *
+ * Everything else comes from auto-configuration and is only tuned in
+ * application.properties: http.server.requests (per uri/method/status),
+ * spring.data.repository.invocations (per repository method), hikaricp.connections.*,
+ * hibernate.* (with hibernate.generate_statistics), jvm.gc.* and jvm.memory.*.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /** Time spent turning a controller's return value into JSON, tagged by the response type (see {@link #typeTag}). */
+    public static final String SERIALIZATION_TIMER = "http.server.response.serialization";
+
+    /**
+     * Replaces Spring Boot's JSON converter (it backs off when this bean exists) with one
+     * that records {@value #SERIALIZATION_TIMER}, so serialization can be told apart from
+     * database time inside http.server.requests. The time includes writing to the response
+     * buffer, and to the socket once the buffer is full.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(
+            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new TimedJsonConverter(objectMapper, meterRegistry);
+    }
+
+    /**
+     * Declared return type (ProductView, LoginResponse...), or the runtime type of the body
+     * when the handler declares {@code ResponseEntity<?>}, so endpoints can be told apart.
+     * Runtime collections are reported as List / Map, keeping the number of series bounded.
+     */
+    static String typeTag(Object object, Type type) {
+        Class<?> declared = type != null ? ResolvableType.forType(type).toClass() : Object.class;
+        if (declared != Object.class) {
+            return declared.getSimpleName();
+        }
+        if (object instanceof Collection) {
+            return "List";
+        }
+        if (object instanceof Map) {
+            return "Map";
+        }
+        return object.getClass().getSimpleName();
+    }
+
+    private static final class TimedJsonConverter extends MappingJackson2HttpMessageConverter {
+
+        private final MeterRegistry meterRegistry;
+
+        TimedJsonConverter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+            super(objectMapper);
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                throws IOException, HttpMessageNotWritableException {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                super.writeInternal(object, type, outputMessage);
+            } finally {
+                sample.stop(Timer.builder(SERIALIZATION_TIMER)
+                        .description("Time to serialize a response body to JSON")
+                        .tag("type", typeTag(object, type))
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+            }
+        }
+    }
+}
@@ -1,15 +1,60 @@
 package com.example.demo.config;
 
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+
+import com.example.demo.security.AdaptiveBCryptPasswordEncoder;
+import com.example.demo.security.BoundedPasswordEncoder;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 public class PasswordConfig {
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    private static final Logger log = LoggerFactory.getLogger(PasswordConfig.class);
+
+    private static final String BCRYPT_ID = "bcrypt";
+
+    /**
+     * bcrypt chạy trên executor riêng (số thread = số core), không chạy trên thread của Tomcat.
+     *
+     * app.auth.bcrypt.strength > 0 pins the cost (recommended with several nodes); otherwise
+     * the cost is calibrated so one hash takes about app.auth.bcrypt.target-ms on this host.
+     * New hashes are stored as "{bcrypt}$2a$..."; legacy unprefixed hashes still match and are
+     * reported by upgradeEncoding(), as are hashes with a lower cost, so they get rehashed on login.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder(
+            MeterRegistry meterRegistry,
+            @Value("${app.auth.bcrypt.strength:0}") int strength,
+            @Value("${app.auth.bcrypt.target-ms:100}") long targetMs,
+            @Value("${app.auth.bcrypt.min-strength:10}") int minStrength,
+            @Value("${app.auth.bcrypt.max-strength:16}") int maxStrength,
+            @Value("${app.auth.hashing.threads:0}") int threads,
+            @Value("${app.auth.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${app.auth.hashing.timeout-ms:5000}") long timeoutMs,
+            @Value("${app.auth.hashing.retry-after-seconds:1}") long retryAfterSeconds) {
+        AdaptiveBCryptPasswordEncoder bcrypt = strength > 0
+                ? new AdaptiveBCryptPasswordEncoder(strength)
+                : AdaptiveBCryptPasswordEncoder.calibrated(targetMs, minStrength, maxStrength);
+        log.info("Using bcrypt cost {} ({})", bcrypt.getStrength(), strength > 0 ? "configured" : "calibrated");
+
+        DelegatingPasswordEncoder delegating =
+                new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(BCRYPT_ID, bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        return new BoundedPasswordEncoder(
+                delegating,
+                threads,
+                queueCapacity,
+                timeoutMs,
+                retryAfterSeconds,
+                meterRegistry);
     }
 }
@@ -0,0 +1,91 @@
+package com.example.demo.config;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import com.example.demo.dto.ProductView;
+import com.example.demo.dto.ProductViewList;
+import com.example.demo.util.ProductProtobufCodec;
+import com.google.protobuf.CodedOutputStream;
+
+/**
+ * Writes {@link ProductView} (message Product) and pages of them (message ProductList)
+ * as application/x-protobuf. Response-only: request bodies stay JSON.
+ *
+ * A page is either a {@link ProductViewList} or a handler declared as returning
+ * {@code List<ProductView>}. Any other body (users, suggestions, the maps returned for
+ * fields=) is not claimed, so a client accepting only protobuf gets 406 for it.
+ */
+public class ProductProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+
+    public ProductProtobufHttpMessageConverter() {
+        super(PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ProductView.class.isAssignableFrom(clazz) || ProductViewList.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return canWrite(mediaType) && (supports(clazz) || isProductViewList(type));
+    }
+
+    // List<ProductView> khai báo tường minh (kiểu generic còn giữ được)
+    private static boolean isProductViewList(Type type) {
+        if (!(type instanceof ParameterizedType)) {
+            return false;
+        }
+        ResolvableType resolved = ResolvableType.forType(type);
+        return List.class.isAssignableFrom(resolved.toClass())
+                && ProductView.class.isAssignableFrom(resolved.getGeneric(0).toClass());
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        CodedOutputStream out = CodedOutputStream.newInstance(outputMessage.getBody());
+        if (body instanceof ProductView view) {
+            ProductProtobufCodec.write(view, out);
+        } else if (body instanceof ProductViewList page) {
+            ProductProtobufCodec.writeList(page.products(), out);
+        } else {
+            ProductProtobufCodec.writeList((List<ProductView>) body, out);
+        }
+        out.flush();
+    }
+}
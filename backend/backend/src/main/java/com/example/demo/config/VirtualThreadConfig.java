@@ -0,0 +1,54 @@
+package com.example.demo.config;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * spring.threads.virtual.enabled=true: giới hạn truy cập DB khi request chạy trên virtual thread.
+ *
+ * Spring Boot itself runs Tomcat requests (and @Async/scheduling) on virtual threads, so a
+ * request blocked on the database parks a virtual thread instead of holding a platform
+ * thread. Without Tomcat's 200-thread cap, thousands of requests can then queue for a
+ * handful of connections; the DataSource is wrapped in {@link AdmissionControlledDataSource},
+ * a fair semaphore with as many permits as the Hikari pool (or app.execution.admission.permits).
+ * With virtual threads off (default) nothing is wrapped.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    // static: BeanPostProcessor phải được tạo sớm, không kéo theo các bean khác của config này
+    @Bean
+    public static BeanPostProcessor admissionControlPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                                                                  Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                int configured = environment.getProperty("app.execution.admission.permits", Integer.class, 0);
+                int permits = configured > 0 ? configured : hikari.getMaximumPoolSize();
+                long timeoutMs = environment.getProperty("app.execution.admission.timeout-ms", Long.class,
+                        hikari.getConnectionTimeout());
+                log.info("Database admission control: {} permit(s), timeout {} ms", permits, timeoutMs);
+                return new AdmissionControlledDataSource(
+                        (DataSource) bean, permits, timeoutMs, meterRegistry.getObject());
+            }
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.demo.config;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.demo.util.XssSanitizer;
+
+@Configuration
+public class XssConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(XssConfig.class);
+
+    /**
+     * app.security.xss.patterns (comma-separated) replaces the default pattern set of
+     * {@link XssSanitizer}; left empty, the defaults are kept. An invalid pattern fails startup.
+     */
+    public XssConfig(@Value("${app.security.xss.patterns:}") List<String> patterns) {
+        if (!patterns.isEmpty()) {
+            XssSanitizer.configurePatterns(patterns);
+            log.info("Using {} custom XSS patterns", patterns.size());
+        }
+    }
+}
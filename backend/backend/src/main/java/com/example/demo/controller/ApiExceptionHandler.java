@@ -0,0 +1,24 @@
+package com.example.demo.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.example.demo.security.PasswordHashingBusyException;
+
+/**
+ * Exception mappings shared by every controller.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    // bcrypt executor đầy -> 503 + Retry-After, dù được gọi từ controller hay service nào (login, register, AuthService...)
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<String> handleHashingBusy(PasswordHashingBusyException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body("Server is busy, please retry later");
+    }
+}
@@ -2,20 +2,29 @@ package com.example.demo.controller;
 
 import java.util.UUID;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.demo.dto.LoginRequest;
 import com.example.demo.dto.LoginResponse;
+import com.example.demo.dto.RefreshRequest;
 import com.example.demo.dto.RegisterRequest;
+import com.example.demo.dto.UsernameAvailability;
 import com.example.demo.entity.User;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.security.UsernameBloomFilter;
+import com.example.demo.security.VerifiedCredentialCache;
 import com.example.demo.service.JwtService;
+import com.example.demo.service.PasswordRehashService;
+import com.example.demo.service.RefreshTokenService;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -24,34 +33,66 @@ public class AuthController {
     private final JwtService jwtService;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PasswordRehashService passwordRehashService;
+    private final VerifiedCredentialCache credentialCache;
+    private final RefreshTokenService refreshTokenService;
+    private final UsernameBloomFilter usernameFilter;
     public AuthController(UserRepository userRepository,
                         PasswordEncoder passwordEncoder,
-                        JwtService jwtService) {
+                        JwtService jwtService,
+                        PasswordRehashService passwordRehashService,
+                        VerifiedCredentialCache credentialCache,
+                        RefreshTokenService refreshTokenService,
+                        UsernameBloomFilter usernameFilter) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
+        this.passwordRehashService = passwordRehashService;
+        this.credentialCache = credentialCache;
+        this.refreshTokenService = refreshTokenService;
+        this.usernameFilter = usernameFilter;
     }
-    // ĐĂNG KÝ
+
+    /**
+     * ĐĂNG KÝ
+     * 
+     * One INSERT ... ON CONFLICT (username) DO NOTHING: no separate existence check, and
+     * concurrent registrations of the same name are decided by the unique constraint, so
+     * exactly one gets 200 and the others 409.
+     * 
+     * @param req RegisterRequest containing username and password
+     * @return 200 on success, 409 Conflict if the username is taken, 503 when password hashing capacity is exhausted
+     */
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody RegisterRequest req) {
-        // check trùng username
-        if (userRepository.findByUsername(req.getUsername()).isPresent()) {
-            return ResponseEntity
-                    .badRequest()
-                    .body("Username is already taken");
-        }
-
-        User user = new User();
-        user.setId(UUID.randomUUID());
-        user.setUsername(req.getUsername());
-        user.setPasswordHash(passwordEncoder.encode(req.getPassword()));
+        String passwordHash = passwordEncoder.encode(req.getPassword());
 
-        userRepository.save(user);
+        if (userRepository.insertIfUsernameFree(UUID.randomUUID(), req.getUsername(), passwordHash).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Username is already taken");
+        }
+        usernameFilter.put(req.getUsername());
+        credentialCache.invalidate(req.getUsername());
 
         // Không trả mật khẩu về client
         return ResponseEntity.ok("Register successfully");
     }
 
+    /**
+     * KIỂM TRA USERNAME
+     * 
+     * Answered from the username Bloom filter when the name is definitely free; only
+     * possible matches (and checks before the filter is built) query the database.
+     * Advisory only: registration itself still decides with the unique constraint.
+     * 
+     * @param username Name to check
+     * @return {"username": ..., "available": true|false}
+     */
+    @GetMapping("/username-available")
+    public ResponseEntity<UsernameAvailability> usernameAvailable(@RequestParam String username) {
+        boolean available = !usernameFilter.mightContain(username) || !userRepository.existsByUsername(username);
+        return ResponseEntity.ok(new UsernameAvailability(username, available));
+    }
+
     /**
      * ĐĂNG NHẬP
      * 
@@ -59,10 +100,17 @@ public class AuthController {
      * - Uses Spring Data JPA's findByUsername() which automatically uses parameterized queries
      * - SQL injection is prevented because user input is bound as a parameter, not concatenated into SQL
      * - Password comparison uses PasswordEncoder.matches() with hashed passwords (bcrypt)
+     * - Hashes with an outdated cost/algorithm are upgraded in the background after a match
+     * - Optional short-lived credential cache (off by default) skips bcrypt for repeat logins
      * - Generic error message prevents username enumeration attacks
      * 
+     * Load shedding:
+     * - bcrypt runs on a bounded executor (see BoundedPasswordEncoder); when it is saturated
+     *   the request fails fast with 503 + Retry-After instead of blocking a Tomcat thread
+     * 
      * @param req LoginRequest containing username and password
-     * @return LoginResponse with JWT token on success, 401 with generic error on failure
+     * @return LoginResponse with a short-lived JWT and a refresh token on success, 401 with generic error on failure,
+     *         503 when password hashing capacity is exhausted
      */
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginRequest req) {
@@ -77,11 +125,20 @@ public class AuthController {
 
         User user = userOpt.get();
 
+        // Vừa verify đúng mật khẩu này với đúng hash này trong TTL -> bỏ qua bcrypt
+        boolean cached = credentialCache.isVerified(user.getUsername(), req.getPassword(), user.getPasswordHash());
+
         // Password comparison using bcrypt - safe from timing attacks
-        if (!passwordEncoder.matches(req.getPassword(), user.getPasswordHash())) {
+        if (!cached && !passwordEncoder.matches(req.getPassword(), user.getPasswordHash())) {
             // Same generic error message for consistency
             return ResponseEntity.status(401).body("Invalid username or password");
         }
+        if (!cached) {
+            credentialCache.remember(user.getUsername(), req.getPassword(), user.getPasswordHash());
+        }
+
+        // Hash cũ (cost khác / chưa có prefix {bcrypt}) -> rehash nền, không chặn response
+        passwordRehashService.rehashIfNeeded(user, req.getPassword());
 
         String token = jwtService.generateToken(
                 user.getId().toString(),
@@ -91,10 +148,44 @@ public class AuthController {
         LoginResponse response = new LoginResponse(
                 token,
                 user.getId().toString(),
-                user.getUsername()
+                user.getUsername(),
+                refreshTokenService.issue(user),
+                jwtService.getAccessTtlSeconds()
         );
 
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * GIA HẠN PHIÊN
+     * 
+     * Exchanges a refresh token for a new access token and a new refresh token.
+     * Costs one indexed lookup plus one JWT signature - no bcrypt. The presented
+     * refresh token is consumed (rotation), so each one works exactly once.
+     * 
+     * @param req RefreshRequest containing the refresh token from login or a previous refresh
+     * @return LoginResponse with new tokens, or 401 if the refresh token is unknown, expired or already used
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshRequest req) {
+        return refreshTokenService.rotate(req.getRefreshToken())
+                .<ResponseEntity<?>>map(rotation -> {
+                    User user = rotation.user();
+                    String token = jwtService.generateToken(user.getId().toString(), user.getUsername());
+                    return ResponseEntity.ok(new LoginResponse(
+                            token,
+                            user.getId().toString(),
+                            user.getUsername(),
+                            rotation.refreshToken(),
+                            jwtService.getAccessTtlSeconds()));
+                })
+                .orElse(ResponseEntity.status(401).body("Invalid refresh token"));
+    }
+
+    // ĐĂNG XUẤT: thu hồi refresh token (access token tự hết hạn sau vài phút)
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody RefreshRequest req) {
+        refreshTokenService.revoke(req.getRefreshToken());
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -1,63 +1,394 @@
 package com.example.demo.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.demo.config.ContentNegotiationConfig;
+import com.example.demo.dto.BulkOperationResult;
+import com.example.demo.dto.ProductBulkUpdate;
+import com.example.demo.dto.ProductSearchCriteria;
+import com.example.demo.dto.ProductSearchHit;
+import com.example.demo.dto.ProductSuggestion;
+import com.example.demo.dto.ProductView;
+import com.example.demo.dto.ProductViewList;
+import com.example.demo.dto.StockRequest;
+import com.example.demo.dto.UserSummary;
 import com.example.demo.entity.Product;
+import com.example.demo.repository.ProductProjectionOperations;
 import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.ProductAutocompleteIndex;
+import com.example.demo.service.ProductCache;
+import com.example.demo.service.ProductJsonCache;
+import com.example.demo.service.ProductService;
+import com.example.demo.service.StockService;
+import com.example.demo.util.ProductCursor;
+import com.example.demo.util.ProductFields;
+import com.example.demo.util.SearchCursor;
+import com.example.demo.util.VersionETag;
 import com.example.demo.util.XssSanitizer;
 
+import jakarta.servlet.http.HttpServletRequest;
+
 @RestController
 @RequestMapping("/api/products")
-@CrossOrigin // cho phép FE gọi từ domain khác (localhost:3000,...)
+@CrossOrigin(exposedHeaders = {"X-Next-Cursor", HttpHeaders.ETAG}) // cho phép FE gọi từ domain khác (localhost:3000,...)
 public class ProductController {
 
+    /** Response header carrying the continuation token of the next page. */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /** Value of the expand parameter that embeds the creator ({id, username}) in each product. */
+    public static final String EXPAND_CREATED_BY = "createdBy";
+
+    private static final int MAX_SUGGESTIONS = 50;
+
     private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final ProductService productService;
+    private final ProductCache productCache;
+    private final StockService stockService;
+    private final ProductAutocompleteIndex autocompleteIndex;
+    private final ProductJsonCache jsonCache;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int maxBulkSize;
 
-    public ProductController(ProductRepository productRepository) {
+    public ProductController(ProductRepository productRepository,
+                             UserRepository userRepository,
+                             ProductService productService,
+                             ProductCache productCache,
+                             StockService stockService,
+                             ProductAutocompleteIndex autocompleteIndex,
+                             ProductJsonCache jsonCache,
+                             @Value("${app.products.page.default-size:50}") int defaultPageSize,
+                             @Value("${app.products.page.max-size:500}") int maxPageSize,
+                             @Value("${app.products.bulk.max-size:10000}") int maxBulkSize) {
         this.productRepository = productRepository;
+        this.userRepository = userRepository;
+        this.productService = productService;
+        this.productCache = productCache;
+        this.stockService = stockService;
+        this.autocompleteIndex = autocompleteIndex;
+        this.jsonCache = jsonCache;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxBulkSize = maxBulkSize;
     }
 
     /**
-     * GET /api/products
+     * GET /api/products?cursor=&limit=&fields=&expand=
      * 
-     * Returns all products as JSON.
+     * Returns one page of products as a JSON array, ordered by (createdAt, id).
+     * Rows are read as projections (no entity hydration, no join to users); with
+     * fields=id,name,price only those columns are selected and returned. The creator is
+     * only an id unless expand=createdBy is given, which resolves the creators of the
+     * whole page with one IN query. The default representation is written from
+     * pre-serialized per-product JSON (see ProductJsonCache).
+     * Paging uses keyset seek instead of OFFSET, so every page costs the same
+     * regardless of how far the client has scrolled.
+     * If more rows exist, the opaque token for the next page is returned in the
+     * X-Next-Cursor response header; pass it back as the cursor parameter.
      * Product names are returned as plain text strings - no HTML transformation.
      * XSS protection is handled by frontend output escaping (React auto-escapes HTML).
+     * 
+     * @param cursor Continuation token from a previous page, omit for the first page
+     * @param limit Page size, defaults to app.products.page.default-size and is capped at app.products.page.max-size
+     * @param fields Comma-separated fields to return (optional, default all)
+     * @param expand "createdBy" to embed the creator (optional)
+     * @param accept JSON by default; application/cbor, application/x-jackson-smile and application/x-protobuf are also served
+     * @return Page of products, or 400 Bad Request if the cursor, fields or expand are malformed
      */
     @GetMapping
-    public List<Product> getAll() {
-        return productRepository.findAll();
+    public ResponseEntity<?> getAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String expand,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        ProductCursor after;
+        try {
+            after = ProductCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid cursor");
+        }
+        List<String> selected;
+        boolean expandCreator;
+        try {
+            selected = ProductFields.parse(fields);
+            expandCreator = parseExpand(expand, selected);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+
+        int pageSize = resolvePageSize(limit);
+        if (selected != null) {
+            return projectedPage(selected, after, pageSize, expandCreator);
+        }
+
+        // đọc dư 1 dòng để biết còn trang sau hay không, khỏi cần COUNT(*)
+        PageRequest window = PageRequest.of(0, pageSize + 1);
+        List<ProductView> rows = after == null
+                ? productRepository.findFirstPage(window)
+                : productRepository.findPageAfter(after.createdAt(), after.id(), window);
+
+        List<ProductView> page = rows.size() <= pageSize ? rows : rows.subList(0, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (rows.size() > pageSize) {
+            response.header(NEXT_CURSOR_HEADER, ProductCursor.of(page.get(pageSize - 1)).encode());
+        }
+        if (expandCreator) {
+            return response.body(new ProductViewList(withCreators(page)));
+        }
+        if (prefersBinary(accept)) {
+            return response.body(new ProductViewList(page));
+        }
+        return response.contentType(MediaType.APPLICATION_JSON).body(jsonCache.jsonArray(page));
+    }
+
+    /**
+     * GET /api/products/search?q=&minPrice=&maxPrice=&status=&cursor=&limit=&expand=
+     * 
+     * Server-side product search, ranked by relevance. q matches name and description by
+     * full text, name prefixes (search-as-you-type) and near-miss spellings of the name;
+     * all matching is index-backed (see db/product-search.sql). Without q, only the filters
+     * apply. Paging works like GET /api/products: a JSON array, with the token for the next
+     * page in the X-Next-Cursor header.
+     * 
+     * @param q Free-text query (optional)
+     * @param minPrice Inclusive lower price bound (optional)
+     * @param maxPrice Inclusive upper price bound (optional)
+     * @param status Exact status (optional)
+     * @param cursor Continuation token from a previous page of the same search
+     * @param limit Page size, defaults to app.products.page.default-size and is capped at app.products.page.max-size
+     * @param expand "createdBy" to embed the creator (optional)
+     * @return Page of products, best match first, or 400 Bad Request if the cursor, price range or expand is invalid
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> search(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String expand
+    ) {
+        SearchCursor after;
+        try {
+            after = SearchCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid cursor");
+        }
+        boolean expandCreator;
+        try {
+            expandCreator = parseExpand(expand, null);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("minPrice must not exceed maxPrice");
+        }
+
+        int pageSize = resolvePageSize(limit);
+        ProductSearchCriteria criteria = new ProductSearchCriteria(q, minPrice, maxPrice, status);
+        // đọc dư 1 dòng để biết còn trang sau hay không
+        List<ProductSearchHit> hits = productRepository.search(criteria, after, pageSize + 1);
+
+        List<ProductView> page = hits.stream()
+                .limit(pageSize)
+                .map(ProductSearchHit::product)
+                .toList();
+        if (expandCreator) {
+            page = withCreators(page);
+        }
+        if (hits.size() <= pageSize) {
+            return ResponseEntity.ok(new ProductViewList(page));
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, SearchCursor.of(hits.get(pageSize - 1)).encode())
+                .body(new ProductViewList(page));
+    }
+
+    /**
+     * GET /api/products/autocomplete?q=&limit=
+     * 
+     * Type-ahead suggestions ({id, name}) for the product name box. Answered from the
+     * in-memory index without touching the database; while the index is still being built
+     * after startup, falls back to the indexed database search.
+     * 
+     * @param q What the user has typed so far; the last word may be partial
+     * @param limit Number of suggestions, default 10, at most 50
+     * @return Suggestions, best first
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<ProductSuggestion>> autocomplete(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        int k = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        if (autocompleteIndex.isReady()) {
+            return ResponseEntity.ok(autocompleteIndex.suggest(q, k));
+        }
+        if (q.isBlank()) {
+            return ResponseEntity.ok(List.of());
+        }
+        List<ProductSuggestion> suggestions = productRepository
+                .search(new ProductSearchCriteria(q, null, null, null), null, k).stream()
+                .map(hit -> new ProductSuggestion(hit.product().id(), hit.product().name()))
+                .toList();
+        return ResponseEntity.ok(suggestions);
+    }
+
+    /**
+     * GET /api/products/export?format=ndjson|json
+     * 
+     * Streams the whole catalog for bulk consumers (search indexers, nightly feeds).
+     * Rows are read from a server-side cursor and written to the response as they
+     * arrive, so memory use is constant and the first bytes are sent before the
+     * last row is read from the database.
+     * 
+     * @param format "ndjson" (default, one product per line) or "json" (a single array)
+     * @return Streaming response body, or 400 Bad Request for an unknown format
+     */
+    @GetMapping("/export")
+    public ResponseEntity<?> export(@RequestParam(defaultValue = "ndjson") String format) {
+        boolean ndjson;
+        if ("ndjson".equalsIgnoreCase(format)) {
+            ndjson = true;
+        } else if ("json".equalsIgnoreCase(format)) {
+            ndjson = false;
+        } else {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Unsupported export format: " + format);
+        }
+
+        StreamingResponseBody body = out -> productService.exportProducts(out, ndjson);
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * POST /api/products/import
+     * 
+     * Bulk-creates products from a JSON array or NDJSON body (same fields as POST /api/products).
+     * The body is parsed as a stream; every row is validated like a single create, and valid
+     * rows are inserted in chunks with JDBC batching. The response is streamed as chunks commit:
+     * {"results":[{"row":1,"status":"created","id":"..."}, ...],"total":..,"created":..,"failed":..}
+     * 
+     * @param request Raw request, its body is read incrementally
+     * @return Streaming per-row results
+     */
+    @PostMapping(value = "/import",
+                 consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> importProducts(HttpServletRequest request) throws IOException {
+        InputStream in = request.getInputStream();
+        StreamingResponseBody body = out -> productService.importProducts(in, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 
     /**
      * GET /api/products/{id}
      * 
      * Gets a product by its ID.
+     * Served from the in-process product cache when possible (no DB connection on a hit).
+     * The response is the ProductView projection (creator as id only, or embedded with
+     * expand=createdBy), optionally cut down to the fields listed in fields=. The default
+     * representation is served as pre-serialized bytes, gzip-compressed if the client
+     * accepts it and the body is large enough.
      * 
-     * Returns product details as JSON.
+     * Returns product details as JSON with a weak ETag derived from the product version.
+     * If the client sends that tag in If-None-Match, 304 Not Modified is returned
+     * without a body, so polling clients do not re-download unchanged products.
+     * The tag only identifies the product version: every representation of that version
+     * (JSON, gzip, CBOR/Smile/Protobuf, fields=, expand=) shares the same W/"version" tag,
+     * which is why it is weak. Caches tell the variants apart by the Vary header, which the
+     * 304 carries exactly like the 200 it revalidates.
      * Product data is returned as plain text strings - no HTML transformation.
      * XSS protection is handled by frontend output escaping (React auto-escapes HTML).
      * 
      * @param id The UUID of the product to retrieve
-     * @return Product entity with 200 OK if found, or 404 Not Found if product doesn't exist
+     * @param ifNoneMatch ETag(s) the client already has
+     * @param fields Comma-separated fields to return (optional, default all)
+     * @param expand "createdBy" to embed the creator (optional)
+     * @return Product with 200 OK if found, 304 Not Modified, 400 Bad Request for unknown fields or expand, or 404 Not Found if product doesn't exist
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getById(@PathVariable UUID id) {
-        return productRepository.findById(id)
-                .map(ResponseEntity::ok)              // 200 OK
+    public ResponseEntity<?> getById(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String expand,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        List<String> selected;
+        boolean expandCreator;
+        try {
+            selected = ProductFields.parse(fields);
+            expandCreator = parseExpand(expand, selected);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+        boolean preSerialized = selected == null && !expandCreator && !prefersBinary(accept);
+        // 304 phải mang cùng Vary với 200 tương ứng
+        String[] vary = preSerialized
+                ? new String[] {HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING}
+                : new String[] {HttpHeaders.ACCEPT};
+
+        return productCache.findById(id)
+                .<ResponseEntity<?>>map(product -> {
+                    String etag = VersionETag.of(product.getVersion());
+                    if (VersionETag.matches(ifNoneMatch, product.getVersion())) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                .eTag(etag)
+                                .header(HttpHeaders.VARY, vary)
+                                .build(); // 304
+                    }
+                    ProductView view = ProductView.of(product);
+                    if (preSerialized) {
+                        return preSerializedResponse(view, etag, vary, acceptsGzip(acceptEncoding));
+                    }
+                    if (expandCreator) {
+                        view = withCreators(List.of(view)).get(0);
+                    }
+                    Object body = selected == null ? view : ProductFields.select(view, selected);
+                    return ResponseEntity.ok().eTag(etag).header(HttpHeaders.VARY, vary).body(body); // 200 OK
+                })
                 .orElse(ResponseEntity.notFound().build()); // 404 Not Found
     }
 
@@ -67,7 +398,7 @@ public class ProductController {
      * Creates a new product.
      * 
      * XSS Protection:
-     * - Validates product name to reject dangerous HTML/script patterns
+     * - Validates product name and description to reject dangerous HTML/script patterns
      * - Returns product as plain text JSON (no HTML transformation)
      * - Frontend is responsible for output escaping (React auto-escapes)
      * 
@@ -76,18 +407,22 @@ public class ProductController {
      */
     @PostMapping
     public ResponseEntity<?> create(@RequestBody Product product) {
-        // Validate product name for XSS protection
-        XssSanitizer.ValidationResult nameValidation = 
-            XssSanitizer.validateProductName(product.getName());
+        // Validate product name + description for XSS protection
+        XssSanitizer.ValidationResult validation = 
+            XssSanitizer.validateProduct(product.getName(), product.getDescription());
         
-        if (!nameValidation.isValid()) {
+        if (!validation.isValid()) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                .body(nameValidation.getErrorMessage());
+                .body(validation.getErrorMessage());
         }
 
         // id sẽ tự random trong @PrePersist nếu null
         Product savedProduct = productRepository.save(product);
-        return ResponseEntity.ok(savedProduct);
+        productCache.evict(savedProduct.getId());
+        autocompleteIndex.put(savedProduct.getId(), savedProduct.getName());
+        return ResponseEntity.ok()
+                .eTag(VersionETag.of(savedProduct.getVersion()))
+                .body(ProductView.of(savedProduct));
     }
 
     /**
@@ -96,47 +431,331 @@ public class ProductController {
      * Updates an existing product.
      * 
      * XSS Protection:
-     * - Validates product name to reject dangerous HTML/script patterns
+     * - Validates product name and description to reject dangerous HTML/script patterns
      * - Returns product as plain text JSON (no HTML transformation)
      * - Frontend is responsible for output escaping (React auto-escapes)
      * 
+     * Concurrency:
+     * - The UPDATE is guarded by the product version, so a concurrent change is never overwritten
+     * - With If-Match, the update only applies if the client's ETag is still current (412 otherwise)
+     * - Without If-Match, a change that lands between our read and write yields 409 Conflict
+     * - If-Match is compared weakly (W/ ignored), unlike the strong comparison RFC 9110
+     *   requires: our tags are weak, and a version match is exactly the precondition we need
+     * 
      * @param id The product ID to update
+     * @param ifMatch ETag the client's edit is based on (optional)
      * @param payload The updated product data
-     * @return Updated product, 400 Bad Request if validation fails, or 404 Not Found
+     * @return Updated product, 400 Bad Request if validation fails, 404 Not Found, 409 Conflict or 412 Precondition Failed
      */
     @PutMapping("/{id}")
     public ResponseEntity<?> update(
             @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody Product payload
     ) {
-        // Validate product name for XSS protection
-        XssSanitizer.ValidationResult nameValidation = 
-            XssSanitizer.validateProductName(payload.getName());
+        // Validate product name + description for XSS protection
+        XssSanitizer.ValidationResult validation = 
+            XssSanitizer.validateProduct(payload.getName(), payload.getDescription());
         
-        if (!nameValidation.isValid()) {
+        if (!validation.isValid()) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                .body(nameValidation.getErrorMessage());
+                .body(validation.getErrorMessage());
         }
 
         return productRepository.findById(id)
-                .map(existing -> {
+                .<ResponseEntity<?>>map(existing -> {
+                    if (ifMatch != null && !VersionETag.matches(ifMatch, existing.getVersion())) {
+                        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                            .eTag(VersionETag.of(existing.getVersion()))
+                            .body("Product has been modified"); // 412
+                    }
                     existing.setName(payload.getName());
                     existing.setDescription(payload.getDescription());
                     existing.setPrice(payload.getPrice());
                     existing.setStockQuantity(payload.getStockQuantity());
                     existing.setStatus(payload.getStatus());
-                    return ResponseEntity.ok(productRepository.save(existing));
+                    try {
+                        // UPDATE ... WHERE id = ? AND version = ? -> không ghi đè thay đổi của request khác
+                        Product saved = productRepository.save(existing);
+                        autocompleteIndex.put(id, saved.getName());
+                        return ResponseEntity.ok()
+                            .eTag(VersionETag.of(saved.getVersion()))
+                            .body(ProductView.of(saved));
+                    } catch (ObjectOptimisticLockingFailureException e) {
+                        return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT)
+                            .body("Product has been modified");
+                    } finally {
+                        productCache.evict(id);
+                    }
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    // DELETE /api/products/{id}
+    /**
+     * DELETE /api/products/{id}
+     * 
+     * Without If-Match: a single DELETE ... RETURNING, no existence check first.
+     * With If-Match: deletes only if the product still has the version the client saw,
+     * otherwise 412. As for PUT, If-Match is compared weakly (W/ ignored) rather than with
+     * the strong comparison RFC 9110 specifies, so the weak tags from GET can be sent back.
+     * 
+     * @param id The product ID to delete
+     * @param ifMatch ETag the client's delete is based on (optional)
+     * @return 204 No Content, 404 Not Found, or 412 Precondition Failed
+     */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable UUID id) {
-        if (!productRepository.existsById(id)) {
+    public ResponseEntity<?> delete(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        if (ifMatch == null) {
+            if (productService.bulkDelete(List.of(id)).getAffected() == 0) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.noContent().build(); // 204
+        }
+
+        Product existing = productRepository.findById(id).orElse(null);
+        if (existing == null) {
             return ResponseEntity.notFound().build();
         }
-        productRepository.deleteById(id);
+        // xóa có điều kiện theo version: nếu bị sửa giữa lúc đọc và xóa thì vẫn trả 412
+        if (!VersionETag.matches(ifMatch, existing.getVersion())
+                || productRepository.deleteByIdAndVersion(id, existing.getVersion()) == 0) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body("Product has been modified");
+        }
+        productCache.evict(id);
+        autocompleteIndex.remove(id);
         return ResponseEntity.noContent().build(); // 204
     }
+
+    /**
+     * PATCH /api/products/bulk
+     * 
+     * Updates many products with set-based SQL in one transaction (no load-then-save per item).
+     * Each element needs an id; null fields are left unchanged, so a mass price change only
+     * sends id and price. Names and descriptions are validated like a single update.
+     * 
+     * @param changes Changes to apply, at most app.products.bulk.max-size
+     * @return Number of updated rows and the ids that do not exist, or 400 Bad Request if validation fails
+     */
+    @PatchMapping("/bulk")
+    public ResponseEntity<?> bulkUpdate(@RequestBody List<ProductBulkUpdate> changes) {
+        if (changes.size() > maxBulkSize) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Too many items, the limit is " + maxBulkSize);
+        }
+
+        for (int i = 0; i < changes.size(); i++) {
+            String error = validateBulkUpdate(changes.get(i));
+            if (error != null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Item " + i + ": " + error);
+            }
+        }
+
+        BulkOperationResult result = productService.bulkUpdate(changes);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * POST /api/products/bulk-delete
+     * 
+     * Deletes many products with a single DELETE ... WHERE id = ANY(?).
+     * 
+     * @param ids Ids to delete, at most app.products.bulk.max-size
+     * @return Number of deleted rows and the ids that do not exist
+     */
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<?> bulkDelete(@RequestBody List<UUID> ids) {
+        if (ids.size() > maxBulkSize) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Too many items, the limit is " + maxBulkSize);
+        }
+        if (ids.contains(null)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Ids must not be null");
+        }
+
+        BulkOperationResult result = productService.bulkDelete(ids);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * POST /api/products/{id}/reserve
+     * 
+     * Atomically takes quantity units out of stock (single conditional UPDATE, safe under
+     * concurrent buyers, no row lock held beyond the statement).
+     * 
+     * @param id The product to reserve
+     * @param request Quantity to reserve, must be positive
+     * @return 200 OK if reserved, 409 Conflict if stock is insufficient, 404 Not Found, or 400 Bad Request
+     */
+    @PostMapping("/{id}/reserve")
+    public ResponseEntity<?> reserve(@PathVariable UUID id, @RequestBody StockRequest request) {
+        if (request.getQuantity() <= 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Quantity must be positive");
+        }
+        if (stockService.reserve(id, request.getQuantity())) {
+            return ResponseEntity.ok().build();
+        }
+        // đường chậm: chỉ khi giữ hàng thất bại mới cần phân biệt 404 / 409
+        if (!productRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Insufficient stock");
+    }
+
+    /**
+     * POST /api/products/{id}/release
+     * 
+     * Returns previously reserved units to stock (order cancelled, reservation expired).
+     * 
+     * @param id The product to release
+     * @param request Quantity to put back, must be positive
+     * @return 200 OK, 404 Not Found, or 400 Bad Request
+     */
+    @PostMapping("/{id}/release")
+    public ResponseEntity<?> release(@PathVariable UUID id, @RequestBody StockRequest request) {
+        if (request.getQuantity() <= 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Quantity must be positive");
+        }
+        if (!stockService.release(id, request.getQuantity())) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok().build();
+    }
+
+    private static String validateBulkUpdate(ProductBulkUpdate change) {
+        if (change == null || change.getId() == null) {
+            return "id is required";
+        }
+        if (change.getName() != null) {
+            XssSanitizer.ValidationResult nameValidation = XssSanitizer.validateProductName(change.getName());
+            if (!nameValidation.isValid()) {
+                return nameValidation.getErrorMessage();
+            }
+        }
+        XssSanitizer.ValidationResult descriptionValidation =
+            XssSanitizer.validateProductDescription(change.getDescription());
+        return descriptionValidation.isValid() ? null : descriptionValidation.getErrorMessage();
+    }
+
+    private ResponseEntity<?> projectedPage(List<String> fields, ProductCursor after, int pageSize,
+                                            boolean expandCreator) {
+        List<ProductProjectionOperations.ProjectedRow> rows =
+                productRepository.findPage(fields, after, pageSize + 1);
+
+        List<Map<String, Object>> page = rows.stream()
+                .limit(pageSize)
+                .map(ProductProjectionOperations.ProjectedRow::fields)
+                .toList();
+        if (expandCreator) {
+            Map<UUID, UserSummary> creators = loadCreators(page.stream()
+                    .map(row -> (UUID) row.get(EXPAND_CREATED_BY)));
+            page.forEach(row -> row.put("createdByUser", creators.get((UUID) row.get(EXPAND_CREATED_BY))));
+        }
+        if (rows.size() <= pageSize) {
+            return ResponseEntity.ok(page);
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, rows.get(pageSize - 1).cursor().encode())
+                .body(page);
+    }
+
+    private ResponseEntity<byte[]> preSerializedResponse(ProductView view, String etag, String[] vary, boolean gzip) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, vary);
+        byte[] compressed = gzip ? jsonCache.gzip(view) : null;
+        if (compressed != null) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(compressed);
+        }
+        return response.body(jsonCache.json(view));
+    }
+
+    /**
+     * True if the client accepts a binary format at least as much as JSON. The byte-cache
+     * paths only hold JSON, so in that case the view is returned as an object and Spring
+     * picks the converter from the Accept header.
+     */
+    private static boolean prefersBinary(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        List<MediaType> types;
+        try {
+            types = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false; // để Spring trả 406 như bình thường
+        }
+        double binary = 0;
+        double json = 0;
+        for (MediaType type : types) {
+            if (ContentNegotiationConfig.BINARY_MEDIA_TYPES.stream().anyMatch(type::equalsTypeAndSubtype)) {
+                binary = Math.max(binary, type.getQualityValue());
+            } else if (type.includes(MediaType.APPLICATION_JSON)) {
+                json = Math.max(json, type.getQualityValue());
+            }
+        }
+        return binary > 0 && binary >= json;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                // "gzip;q=0" nghĩa là không nhận gzip
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param selected Fields from fields=, or null for all
+     * @return true if the creator should be embedded
+     * @throws IllegalArgumentException for an unknown value, or createdBy not among the selected fields
+     */
+    private static boolean parseExpand(String expand, List<String> selected) {
+        if (expand == null || expand.isBlank()) {
+            return false;
+        }
+        for (String value : expand.split(",")) {
+            if (!EXPAND_CREATED_BY.equals(value.trim())) {
+                throw new IllegalArgumentException("Unknown expand: " + value.trim());
+            }
+        }
+        if (selected != null && !selected.contains(EXPAND_CREATED_BY)) {
+            throw new IllegalArgumentException("expand=createdBy requires createdBy in fields");
+        }
+        return true;
+    }
+
+    // một câu IN (...) cho cả trang, không N+1
+    private List<ProductView> withCreators(List<ProductView> page) {
+        Map<UUID, UserSummary> creators = loadCreators(page.stream().map(ProductView::createdBy));
+        return page.stream()
+                .map(view -> view.withCreatedByUser(creators.get(view.createdBy())))
+                .toList();
+    }
+
+    private Map<UUID, UserSummary> loadCreators(Stream<UUID> creatorIds) {
+        Set<UUID> ids = creatorIds.filter(Objects::nonNull).collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return userRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(UserSummary::id, Function.identity()));
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return Math.min(defaultPageSize, maxPageSize);
+        }
+        return Math.min(limit, maxPageSize);
+    }
 }
@@ -1,11 +1,18 @@
 package com.example.demo.controller;
 
+import java.sql.SQLException;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -16,16 +23,35 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.example.demo.entity.User;   
 import com.example.demo.repository.UserRepository;
+import com.example.demo.security.UsernameBloomFilter;
+import com.example.demo.security.VerifiedCredentialCache;
+import com.example.demo.service.RefreshTokenService;
 
 @RestController
 @RequestMapping("/api/users")
 @CrossOrigin // cho phép FE call từ domain khác (localhost:3000, v.v.)
 public class UserController {
 
+    // SQLState PostgreSQL: vi phạm unique / khóa ngoại
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final String FOREIGN_KEY_VIOLATION = "23503";
+
     private final UserRepository userRepository;
+    private final VerifiedCredentialCache credentialCache;
+    private final RefreshTokenService refreshTokenService;
+    private final UsernameBloomFilter usernameFilter;
+    private final TransactionTemplate transaction;
 
-    public UserController(UserRepository userRepository) {
+    public UserController(UserRepository userRepository,
+                          VerifiedCredentialCache credentialCache,
+                          RefreshTokenService refreshTokenService,
+                          UsernameBloomFilter usernameFilter,
+                          PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
+        this.credentialCache = credentialCache;
+        this.refreshTokenService = refreshTokenService;
+        this.usernameFilter = usernameFilter;
+        this.transaction = new TransactionTemplate(transactionManager);
     }
 
     // GET /api/users  -> lấy tất cả user
@@ -47,7 +73,10 @@ public class UserController {
     public User create(@RequestBody User user) {
         // hiện tại expect passwordHash đã được hash sẵn
         // sau này nếu muốn gửi plain password thì mình sẽ thêm bước hash bằng BCrypt
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        usernameFilter.put(saved.getUsername());
+        credentialCache.invalidate(saved.getUsername());
+        return saved;
     }
 
     // PUT /api/users/{id} -> cập nhật user
@@ -58,9 +87,18 @@ public class UserController {
     ) {
         return userRepository.findById(id)
                 .map(existing -> {
+                    // đổi username/passwordHash -> bỏ cache đăng nhập của cả tên cũ lẫn tên mới
+                    credentialCache.invalidate(existing.getUsername());
+                    boolean passwordChanged = !Objects.equals(existing.getPasswordHash(), payload.getPasswordHash());
                     existing.setUsername(payload.getUsername());
                     existing.setPasswordHash(payload.getPasswordHash());
-                    return ResponseEntity.ok(userRepository.save(existing));
+                    User saved = userRepository.save(existing);
+                    if (passwordChanged) {
+                        refreshTokenService.revokeAll(id); // đổi mật khẩu thành công -> thu hồi mọi phiên
+                    }
+                    usernameFilter.put(saved.getUsername());
+                    credentialCache.invalidate(saved.getUsername());
+                    return ResponseEntity.ok(saved);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -68,10 +106,33 @@ public class UserController {
     // DELETE /api/users/{id} -> xóa user
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable UUID id) {
-        if (!userRepository.existsById(id)) {
-            return ResponseEntity.notFound().build();
+        return userRepository.findById(id)
+                .map(existing -> {
+                    // refresh_tokens tham chiếu users nên phải xóa trước, nhưng cùng transaction:
+                    // xóa user lỗi (vd. còn sản phẩm do user tạo) thì các phiên không bị thu hồi
+                    transaction.executeWithoutResult(status -> {
+                        refreshTokenService.revokeAll(id);
+                        userRepository.delete(existing);
+                        userRepository.flush();
+                    });
+                    credentialCache.invalidate(existing.getUsername());
+                    return ResponseEntity.noContent().<Void>build();
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // trùng username -> 409; user còn sản phẩm (products.created_by) -> 409 với thông báo riêng.
+    // Trên bảng users chỉ username có ràng buộc unique (id do server sinh), nên 23505 ở đây là trùng username.
+    // Lỗi toàn vẹn khác giữ xử lý mặc định.
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<String> handleConflict(DataIntegrityViolationException ex) {
+        String sqlState = ex.getMostSpecificCause() instanceof SQLException sql ? sql.getSQLState() : null;
+        if (UNIQUE_VIOLATION.equals(sqlState)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Username is already taken");
+        }
+        if (FOREIGN_KEY_VIOLATION.equals(sqlState)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("User still has products and cannot be deleted");
         }
-        userRepository.deleteById(id);
-        return ResponseEntity.noContent().build();
+        throw ex;
     }
 }
@@ -0,0 +1,17 @@
+package com.example.demo.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public class BulkOperationResult {
+    private final int affected;
+    private final List<UUID> missingIds;
+
+    public BulkOperationResult(int affected, List<UUID> missingIds) {
+        this.affected = affected;
+        this.missingIds = missingIds;
+    }
+
+    public int getAffected() { return affected; }
+    public List<UUID> getMissingIds() { return missingIds; }
+}
@@ -4,6 +4,8 @@ public class LoginResponse {
     private String token;
     private String userId;
     private String username;
+    private String refreshToken;
+    private Long expiresIn; // số giây sống của access token
 
     public LoginResponse(String token, String userId, String username) {
         this.token = token;
@@ -11,7 +13,15 @@ public class LoginResponse {
         this.username = username;
     }
 
+    public LoginResponse(String token, String userId, String username, String refreshToken, Long expiresIn) {
+        this(token, userId, username);
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
+    }
+
     public String getToken() { return token; }
     public String getUserId() { return userId; }
     public String getUsername() { return username; }
+    public String getRefreshToken() { return refreshToken; }
+    public Long getExpiresIn() { return expiresIn; }
 }
@@ -0,0 +1,45 @@
+package com.example.demo.dto;
+
+import java.util.UUID;
+
+/**
+ * One row of a bulk update. Null fields are left unchanged.
+ */
+public class ProductBulkUpdate {
+    private UUID id;
+    private String name;
+    private Double price;
+    private Integer stockQuantity;
+    private String description;
+    private String status;
+
+    public ProductBulkUpdate() {}
+
+    public ProductBulkUpdate(UUID id, String name, Double price, Integer stockQuantity,
+                             String description, String status) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.stockQuantity = stockQuantity;
+        this.description = description;
+        this.status = status;
+    }
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public Double getPrice() { return price; }
+    public void setPrice(Double price) { this.price = price; }
+
+    public Integer getStockQuantity() { return stockQuantity; }
+    public void setStockQuantity(Integer stockQuantity) { this.stockQuantity = stockQuantity; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+}
@@ -0,0 +1,16 @@
+package com.example.demo.dto;
+
+/**
+ * Filters of GET /api/products/search. Every field is optional.
+ *
+ * @param query free text matched against name and description
+ * @param minPrice inclusive lower price bound
+ * @param maxPrice inclusive upper price bound
+ * @param status exact status
+ */
+public record ProductSearchCriteria(String query, Double minPrice, Double maxPrice, String status) {
+
+    public boolean hasQuery() {
+        return query != null && !query.isBlank();
+    }
+}
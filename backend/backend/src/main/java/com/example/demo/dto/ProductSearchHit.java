@@ -0,0 +1,7 @@
+package com.example.demo.dto;
+
+/**
+ * A search result with its relevance score (higher is better).
+ */
+public record ProductSearchHit(ProductView product, float score) {
+}
@@ -0,0 +1,9 @@
+package com.example.demo.dto;
+
+import java.util.UUID;
+
+/**
+ * One autocomplete entry: enough to render the suggestion and open the product.
+ */
+public record ProductSuggestion(UUID id, String name) {
+}
@@ -0,0 +1,61 @@
+package com.example.demo.dto;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import com.example.demo.entity.Product;
+import com.example.demo.entity.User;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Read model returned by the product listing and detail endpoints.
+ *
+ * Selected directly in JPQL (constructor expression), so listing pages are not hydrated
+ * into managed entities. The creator is exposed as its id only; {@code p.createdByUser.id}
+ * is read from the created_by column without joining users. With expand=createdBy the
+ * controller fills {@code createdByUser} for a whole page from one IN query.
+ */
+public record ProductView(
+        UUID id,
+        String name,
+        String description,
+        Double price,
+        Integer stockQuantity,
+        String status,
+        UUID createdBy,
+        OffsetDateTime createdAt,
+        OffsetDateTime updatedAt,
+        Long version,
+        @JsonInclude(JsonInclude.Include.NON_NULL) UserSummary createdByUser) {
+
+    /** JPQL select list matching the record components, for {@code SELECT new ...ProductView(...)}. */
+    public static final String JPQL_SELECT = "new com.example.demo.dto.ProductView(p.id, p.name, p.description, "
+            + "p.price, p.stockQuantity, p.status, p.createdByUser.id, p.createdAt, p.updatedAt, p.version)";
+
+    // dùng cho constructor expression trong JPQL (chưa expand người tạo)
+    public ProductView(UUID id, String name, String description, Double price, Integer stockQuantity,
+                       String status, UUID createdBy, OffsetDateTime createdAt, OffsetDateTime updatedAt,
+                       Long version) {
+        this(id, name, description, price, stockQuantity, status, createdBy, createdAt, updatedAt, version, null);
+    }
+
+    public ProductView withCreatedByUser(UserSummary creator) {
+        return new ProductView(id, name, description, price, stockQuantity, status, createdBy,
+                createdAt, updatedAt, version, creator);
+    }
+
+    public static ProductView of(Product product) {
+        User creator = product.getCreatedByUser();
+        return new ProductView(
+                product.getId(),
+                product.getName(),
+                product.getDescription(),
+                product.getPrice(),
+                product.getStockQuantity(),
+                product.getStatus(),
+                creator == null ? null : creator.getId(),
+                product.getCreatedAt(),
+                product.getUpdatedAt(),
+                product.getVersion());
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * A page of {@link ProductView}s as a response body.
+ *
+ * Serialized by Jackson as a plain array, exactly like the list itself. The wrapper only
+ * keeps the element type visible at runtime (handlers returning {@code ResponseEntity<?>}
+ * erase it), so content negotiation can offer application/x-protobuf for product pages
+ * and not for other lists.
+ */
+public record ProductViewList(@JsonValue List<ProductView> products) {
+}
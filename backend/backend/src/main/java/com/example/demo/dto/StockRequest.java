@@ -0,0 +1,14 @@
+package com.example.demo.dto;
+
+public class StockRequest {
+    private int quantity;
+
+    public StockRequest() {}
+
+    public StockRequest(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+}
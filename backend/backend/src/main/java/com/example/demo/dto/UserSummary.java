@@ -0,0 +1,9 @@
+package com.example.demo.dto;
+
+import java.util.UUID;
+
+/**
+ * Public view of a user, as embedded in products with expand=createdBy.
+ */
+public record UserSummary(UUID id, String username) {
+}
@@ -0,0 +1,7 @@
+package com.example.demo.dto;
+
+/**
+ * Response of GET /api/auth/username-available.
+ */
+public record UsernameAvailability(String username, boolean available) {
+}
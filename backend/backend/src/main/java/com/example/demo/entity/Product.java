@@ -3,20 +3,29 @@ package com.example.demo.entity;
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+    // phục vụ keyset pagination: ORDER BY created_at, id
+    @Index(name = "idx_products_created_at_id", columnList = "created_at, id")
+})
 public class Product {
     
     @Id
@@ -38,18 +47,28 @@ public class Product {
     @Column(name = "status")
     private String status;
 
-    @ManyToOne
+    // LAZY: danh sách sản phẩm không đụng tới bảng users; cần người tạo thì dùng expand=createdBy
+    // (nạp theo lô nhờ @BatchSize trên User, hoặc JOIN FETCH / entity graph)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by", referencedColumnName = "id")
     private User createdByUser; 
 
+    // khóa keyset nên NOT NULL (db/product-keyset.sql backfill các dòng cũ)
     @CreationTimestamp
-    @Column(name = "created_at", updatable = false)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private OffsetDateTime createdAt;
 
     @UpdateTimestamp
     @Column(name = "updated_at")
     private OffsetDateTime updatedAt;
 
+    // Optimistic locking + ETag; dòng cũ nhận giá trị mặc định 0 khi thêm cột
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     // --- Constructors cho File Test ---
     public Product() {} // Constructor rỗng
 
@@ -90,4 +109,7 @@ public class Product {
 
     public OffsetDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(OffsetDateTime updatedAt) { this.updatedAt = updatedAt; }
-}
\ No newline at end of file
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
@@ -2,6 +2,10 @@ package com.example.demo.entity;
 
 import java.util.UUID;
 
+import org.hibernate.annotations.BatchSize;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
@@ -10,6 +14,7 @@ import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "users")
+@BatchSize(size = 100) // proxy người tạo của nhiều Product được nạp chung 1 câu IN (...)
 public class User {
 
     @Id
@@ -19,6 +24,8 @@ public class User {
     @Column(name = "username", nullable = false, unique = true)
     private String username;
 
+    // chỉ nhận vào (POST/PUT /api/users), không bao giờ trả ra response
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @Column(name = "password_hash", nullable = false)
     private String passwordHash;
 
@@ -0,0 +1,30 @@
+package com.example.demo.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import com.example.demo.dto.ProductBulkUpdate;
+
+/**
+ * Set-based writes on products that bypass the load-then-save cycle of JPA.
+ * Must be called inside a transaction; the persistence context is not updated.
+ */
+public interface ProductBulkOperations {
+
+    /**
+     * Applies all changes with {@code UPDATE ... FROM (VALUES ...)}, one statement
+     * per 1000 rows.
+     *
+     * @param changes at most one change per id
+     * @return ids of the rows that existed and were updated
+     */
+    List<UUID> bulkUpdate(List<ProductBulkUpdate> changes);
+
+    /**
+     * Deletes all given ids with a single {@code DELETE ... WHERE id = ANY(?)}.
+     *
+     * @return ids of the rows that existed and were deleted
+     */
+    List<UUID> bulkDelete(Collection<UUID> ids);
+}
@@ -0,0 +1,100 @@
+package com.example.demo.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.dto.ProductBulkUpdate;
+
+/**
+ * JDBC implementation of {@link ProductBulkOperations}, picked up by Spring Data as a
+ * fragment of {@link ProductRepository}. Runs on the connection of the surrounding
+ * JPA transaction.
+ */
+class ProductBulkOperationsImpl implements ProductBulkOperations {
+
+    // 6 tham số / dòng, PostgreSQL cho tối đa 32767 tham số / câu lệnh
+    static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    private static final String UPDATE_PREFIX = """
+            UPDATE products AS p SET
+                name = COALESCE(v.name, p.name),
+                price = COALESCE(v.price, p.price),
+                stock_quantity = COALESCE(v.stock_quantity, p.stock_quantity),
+                description = COALESCE(v.description, p.description),
+                status = COALESCE(v.status, p.status),
+                updated_at = now(),
+                version = p.version + 1
+            FROM (VALUES
+            """;
+    private static final String UPDATE_ROW = "(?::uuid, ?::text, ?::float8, ?::int4, ?::text, ?::text)";
+    private static final String UPDATE_SUFFIX = """
+
+            ) AS v(id, name, price, stock_quantity, description, status)
+            WHERE p.id = v.id
+            RETURNING p.id
+            """;
+
+    private static final String DELETE = "DELETE FROM products WHERE id = ANY(?) RETURNING id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    ProductBulkOperationsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<UUID> bulkUpdate(List<ProductBulkUpdate> changes) {
+        List<UUID> updated = new ArrayList<>(changes.size());
+        for (int from = 0; from < changes.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<ProductBulkUpdate> slice =
+                    changes.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, changes.size()));
+            updated.addAll(jdbcTemplate.query(
+                    updateSql(slice.size()),
+                    ps -> bindUpdate(ps, slice),
+                    (rs, rowNum) -> rs.getObject(1, UUID.class)));
+        }
+        return updated;
+    }
+
+    @Override
+    public List<UUID> bulkDelete(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(
+                DELETE,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids.toArray())),
+                (rs, rowNum) -> rs.getObject(1, UUID.class));
+    }
+
+    private static String updateSql(int rows) {
+        StringBuilder sql = new StringBuilder(UPDATE_PREFIX.length() + rows * (UPDATE_ROW.length() + 2) + 100);
+        sql.append(UPDATE_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(",\n");
+            }
+            sql.append(UPDATE_ROW);
+        }
+        return sql.append(UPDATE_SUFFIX).toString();
+    }
+
+    private static void bindUpdate(PreparedStatement ps, List<ProductBulkUpdate> rows) throws SQLException {
+        int i = 1;
+        for (ProductBulkUpdate row : rows) {
+            ps.setObject(i++, row.getId());
+            ps.setObject(i++, row.getName(), Types.VARCHAR);
+            ps.setObject(i++, row.getPrice(), Types.DOUBLE);
+            ps.setObject(i++, row.getStockQuantity(), Types.INTEGER);
+            ps.setObject(i++, row.getDescription(), Types.VARCHAR);
+            ps.setObject(i++, row.getStatus(), Types.VARCHAR);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.repository;
+
+import java.util.List;
+import java.util.Map;
+
+import com.example.demo.util.ProductCursor;
+
+/**
+ * Listing queries that select only the columns a client asked for ({@code fields=}).
+ */
+public interface ProductProjectionOperations {
+
+    /**
+     * One keyset page in (createdAt, id) order, each row holding only the requested fields.
+     *
+     * @param fields field names accepted by {@link com.example.demo.util.ProductFields#parse}
+     * @param after last row of the previous page, or null for the first page
+     * @param limit maximum number of rows
+     */
+    List<ProjectedRow> findPage(List<String> fields, ProductCursor after, int limit);
+
+    /**
+     * A projected row plus its position, so the next page can be requested even when
+     * the client did not ask for createdAt or id.
+     */
+    record ProjectedRow(Map<String, Object> fields, ProductCursor cursor) {
+    }
+}
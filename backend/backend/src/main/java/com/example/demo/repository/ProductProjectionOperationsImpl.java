@@ -0,0 +1,66 @@
+package com.example.demo.repository;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.hibernate.jpa.HibernateHints;
+
+import com.example.demo.util.ProductCursor;
+import com.example.demo.util.ProductFields;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * JPQL implementation of {@link ProductProjectionOperations}, picked up by Spring Data as a
+ * fragment of {@link ProductRepository}.
+ *
+ * The select list is built from whitelisted paths only: the cursor columns first, then the
+ * requested fields. Results are scalar tuples, so nothing is hydrated or added to the
+ * persistence context, and {@code p.createdByUser.id} reads the FK column without a join.
+ */
+class ProductProjectionOperationsImpl implements ProductProjectionOperations {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ProjectedRow> findPage(List<String> fields, ProductCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT p.createdAt, p.id");
+        for (String field : fields) {
+            jpql.append(", ").append(ProductFields.jpqlPath(field));
+        }
+        jpql.append(" FROM Product p");
+        if (after != null) {
+            jpql.append(" WHERE ").append(ProductCursor.JPQL_AFTER);
+        }
+        jpql.append(" ORDER BY p.createdAt ASC, p.id ASC");
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class)
+                .setMaxResults(limit)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (after != null) {
+            query.setParameter("createdAt", after.createdAt());
+            query.setParameter("id", after.id());
+        }
+
+        List<Tuple> tuples = query.getResultList();
+        List<ProjectedRow> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                values.put(fields.get(i), tuple.get(i + 2));
+            }
+            ProductCursor cursor = new ProductCursor(
+                    tuple.get(0, OffsetDateTime.class), tuple.get(1, UUID.class));
+            rows.add(new ProjectedRow(values, cursor));
+        }
+        return rows;
+    }
+}
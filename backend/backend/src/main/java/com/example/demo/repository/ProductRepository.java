@@ -1,10 +1,85 @@
 package com.example.demo.repository;
 
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.demo.dto.ProductSuggestion;
+import com.example.demo.dto.ProductView;
 import com.example.demo.entity.Product;
+import com.example.demo.util.ProductCursor;
 
-public interface ProductRepository extends JpaRepository<Product, UUID> {
-}
\ No newline at end of file
+import jakarta.persistence.QueryHint;
+
+public interface ProductRepository extends JpaRepository<Product, UUID>, ProductBulkOperations,
+        ProductSearchOperations, ProductProjectionOperations {
+
+    /** Rows fetched per round trip by {@link #streamAll()}. */
+    int EXPORT_FETCH_SIZE = 500;
+
+    // Keyset pagination: both queries are served by idx_products_created_at_id,
+    // so the cost of a page does not depend on how deep the client has scrolled.
+    // Pageable is only used for its page size (always page 0, no count query).
+    // Rows are projected straight into ProductView: no entity hydration, no join to users.
+    @Query("SELECT " + ProductView.JPQL_SELECT + " FROM Product p ORDER BY p.createdAt ASC, p.id ASC")
+    List<ProductView> findFirstPage(Pageable pageable);
+
+    @Query("SELECT " + ProductView.JPQL_SELECT + " FROM Product p WHERE " + ProductCursor.JPQL_AFTER
+            + " ORDER BY p.createdAt ASC, p.id ASC")
+    List<ProductView> findPageAfter(@Param("createdAt") OffsetDateTime createdAt,
+                                @Param("id") UUID id,
+                                Pageable pageable);
+
+    // Server-side cursor: PostgreSQL only honours the fetch size inside a transaction,
+    // so callers must consume the stream within @Transactional and close it.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p ORDER BY p.createdAt ASC, p.id ASC")
+    Stream<Product> streamAll();
+
+    // Chỉ id + tên, dùng để dựng chỉ mục autocomplete lúc khởi động
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.demo.dto.ProductSuggestion(p.id, p.name) FROM Product p")
+    Stream<ProductSuggestion> streamSuggestions();
+
+    // Giữ hàng nguyên tử: điều kiện kiểm tra và trừ kho nằm trong cùng 1 câu UPDATE,
+    // nên không cần khóa bi quan. Vẫn tăng version để ETag đổi. Trả về 0 nếu không đủ hàng (hoặc không có sản phẩm).
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE products
+            SET stock_quantity = stock_quantity - :quantity, updated_at = now(), version = version + 1
+            WHERE id = :id AND stock_quantity >= :quantity
+            """, nativeQuery = true)
+    int reserveStock(@Param("id") UUID id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE products
+            SET stock_quantity = stock_quantity + :quantity, updated_at = now(), version = version + 1
+            WHERE id = :id
+            """, nativeQuery = true)
+    int releaseStock(@Param("id") UUID id, @Param("quantity") int quantity);
+
+    // Xóa có điều kiện (If-Match): 0 nếu sản phẩm đã bị sửa/xóa sau khi client đọc
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Product p WHERE p.id = :id AND p.version = :version")
+    int deleteByIdAndVersion(@Param("id") UUID id, @Param("version") long version);
+}
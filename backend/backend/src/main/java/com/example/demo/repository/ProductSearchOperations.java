@@ -0,0 +1,21 @@
+package com.example.demo.repository;
+
+import java.util.List;
+
+import com.example.demo.dto.ProductSearchCriteria;
+import com.example.demo.dto.ProductSearchHit;
+import com.example.demo.util.SearchCursor;
+
+/**
+ * Ranked product search over the indexes created by db/product-search.sql.
+ */
+public interface ProductSearchOperations {
+
+    /**
+     * Returns hits ordered by score descending, then id.
+     *
+     * @param after last hit of the previous page, or null for the first page
+     * @param limit maximum number of hits
+     */
+    List<ProductSearchHit> search(ProductSearchCriteria criteria, SearchCursor after, int limit);
+}
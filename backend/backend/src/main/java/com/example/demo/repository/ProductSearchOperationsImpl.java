@@ -0,0 +1,125 @@
+package com.example.demo.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.dto.ProductSearchCriteria;
+import com.example.demo.dto.ProductSearchHit;
+import com.example.demo.dto.ProductView;
+import com.example.demo.util.SearchCursor;
+
+/**
+ * JDBC implementation of {@link ProductSearchOperations}, picked up by Spring Data as a
+ * fragment of {@link ProductRepository}.
+ *
+ * A text query matches if any of these hold, each served by its own index
+ * (the planner combines them with a BitmapOr):
+ * <ul>
+ *   <li>full text: {@code search_vector @@ websearch_to_tsquery(...)} (GIN on search_vector)</li>
+ *   <li>prefix: {@code lower(name) LIKE 'term%'} (btree text_pattern_ops)</li>
+ *   <li>typo: {@code lower(name) % 'term'} (GIN trigram)</li>
+ * </ul>
+ * Score = ts_rank_cd on name (weight A) and description (weight B) + trigram similarity
+ * of the name. Only the filters that are set end up in the SQL.
+ */
+class ProductSearchOperationsImpl implements ProductSearchOperations {
+
+    private static final String COLUMNS =
+            "p.id, p.name, p.description, p.price, p.stock_quantity, p.status, p.created_by, "
+                    + "p.created_at, p.updated_at, p.version";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    ProductSearchOperationsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<ProductSearchHit> search(ProductSearchCriteria criteria, SearchCursor after, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM (SELECT ").append(COLUMNS).append(", ");
+        List<Object> args = new ArrayList<>();
+        List<Integer> types = new ArrayList<>();
+
+        if (criteria.hasQuery()) {
+            String query = criteria.query().trim();
+            String term = query.toLowerCase(Locale.ROOT);
+            sql.append("""
+                    (ts_rank_cd(p.search_vector, websearch_to_tsquery('simple', ?))
+                        + similarity(lower(p.name), ?))::real AS score
+                    FROM products p
+                    WHERE (p.search_vector @@ websearch_to_tsquery('simple', ?)
+                        OR lower(p.name) LIKE ?
+                        OR lower(p.name) % ?)
+                    """);
+            add(args, types, query, Types.VARCHAR);
+            add(args, types, term, Types.VARCHAR);
+            add(args, types, query, Types.VARCHAR);
+            add(args, types, escapeLike(term) + "%", Types.VARCHAR);
+            add(args, types, term, Types.VARCHAR);
+        } else {
+            sql.append("0::real AS score FROM products p WHERE TRUE\n");
+        }
+
+        if (criteria.minPrice() != null) {
+            sql.append("AND p.price >= ?\n");
+            add(args, types, criteria.minPrice(), Types.DOUBLE);
+        }
+        if (criteria.maxPrice() != null) {
+            sql.append("AND p.price <= ?\n");
+            add(args, types, criteria.maxPrice(), Types.DOUBLE);
+        }
+        if (criteria.status() != null && !criteria.status().isBlank()) {
+            sql.append("AND p.status = ?\n");
+            add(args, types, criteria.status(), Types.VARCHAR);
+        }
+        sql.append(") s\n");
+
+        if (after != null) {
+            sql.append("WHERE s.score < ? OR (s.score = ? AND s.id > ?)\n");
+            add(args, types, after.score(), Types.REAL);
+            add(args, types, after.score(), Types.REAL);
+            add(args, types, after.id(), Types.OTHER);
+        }
+        sql.append("ORDER BY s.score DESC, s.id ASC LIMIT ?");
+        add(args, types, limit, Types.INTEGER);
+
+        return jdbcTemplate.query(
+                sql.toString(),
+                args.toArray(),
+                types.stream().mapToInt(Integer::intValue).toArray(),
+                (rs, rowNum) -> new ProductSearchHit(mapView(rs), rs.getFloat("score")));
+    }
+
+    private static void add(List<Object> args, List<Integer> types, Object value, int type) {
+        args.add(value);
+        types.add(type);
+    }
+
+    // ký tự đại diện của LIKE trong input được coi là ký tự thường
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // cùng dạng với GET /api/products (ProductView), kể cả id người tạo cho expand=createdBy
+    private static ProductView mapView(ResultSet rs) throws SQLException {
+        return new ProductView(
+                rs.getObject("id", UUID.class),
+                rs.getString("name"),
+                rs.getString("description"),
+                rs.getObject("price", Double.class),
+                rs.getObject("stock_quantity", Integer.class),
+                rs.getString("status"),
+                rs.getObject("created_by", UUID.class),
+                rs.getObject("created_at", OffsetDateTime.class),
+                rs.getObject("updated_at", OffsetDateTime.class),
+                rs.getObject("version", Long.class));
+    }
+}
@@ -1,12 +1,59 @@
 package com.example.demo.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.demo.dto.UserSummary;
 import com.example.demo.entity.User;
 
+import jakarta.persistence.QueryHint;
+
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByUsername(String username);
+
+    boolean existsByUsername(String username);
+
+    // Đăng ký trong 1 round trip, không race: trùng username -> không chèn, không có dòng trả về (empty).
+    // Ràng buộc unique của username quyết định, nên 2 request đồng thời không thể cùng thành công.
+    @Transactional
+    @Query(value = """
+            INSERT INTO users (id, username, password_hash)
+            VALUES (:id, :username, :passwordHash)
+            ON CONFLICT (username) DO NOTHING
+            RETURNING id
+            """, nativeQuery = true)
+    Optional<UUID> insertIfUsernameFree(@Param("id") UUID id,
+                                        @Param("username") String username,
+                                        @Param("passwordHash") String passwordHash);
+
+    // Dựng Bloom filter username lúc khởi động (server-side cursor, cần transaction)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u.username FROM User u")
+    Stream<String> streamUsernames();
+
+    // expand=createdBy: người tạo của cả một trang sản phẩm trong 1 câu IN (...), không lấy password_hash
+    @Query("SELECT new com.example.demo.dto.UserSummary(u.id, u.username) FROM User u WHERE u.id IN :ids")
+    List<UserSummary> findSummariesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Compare-and-set: only replaces the hash if nobody changed the password in the meantime
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.passwordHash = :newHash WHERE u.id = :id AND u.passwordHash = :oldHash")
+    int updatePasswordHash(@Param("id") UUID id,
+                           @Param("oldHash") String oldHash,
+                           @Param("newHash") String newHash);
 }
@@ -0,0 +1,68 @@
+package com.example.demo.security;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCryptPasswordEncoder whose work factor can be chosen per host at startup and which
+ * reports hashes weaker than that cost as needing an upgrade.
+ *
+ * Stronger hashes are kept as they are: a slow or overloaded host that calibrates a
+ * low cost must not weaken stored credentials, and nodes calibrated differently must
+ * not re-hash the same users back and forth. Multi-node deployments should pin
+ * app.auth.bcrypt.strength so that every node hashes new passwords alike.
+ */
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT_PATTERN =
+            Pattern.compile("\\A\\$2(a|y|b)?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+    private final int strength;
+
+    public AdaptiveBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    /**
+     * Picks the highest cost in [minStrength, maxStrength] whose hash time on this
+     * host does not exceed targetMillis (each +1 doubles the time, so the result
+     * lands between targetMillis / 2 and targetMillis unless clamped by the bounds).
+     */
+    public static AdaptiveBCryptPasswordEncoder calibrated(long targetMillis, int minStrength, int maxStrength) {
+        timeHash(minStrength); // warm-up JIT
+
+        int strength = minStrength;
+        long elapsed = timeHash(strength);
+        while (strength < maxStrength && elapsed * 2 <= targetMillis) {
+            strength++;
+            elapsed = timeHash(strength);
+        }
+        return new AdaptiveBCryptPasswordEncoder(strength);
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        if (!matcher.matches()) {
+            return false;
+        }
+        return Integer.parseInt(matcher.group(2)) < strength;
+    }
+
+    private static long timeHash(int strength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(strength);
+        long start = System.nanoTime();
+        probe.encode("calibration-probe");
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
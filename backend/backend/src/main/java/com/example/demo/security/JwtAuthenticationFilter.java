@@ -0,0 +1,201 @@
+package com.example.demo.security;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.demo.service.JwtService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Verifies "Authorization: Bearer &lt;jwt&gt;" with the {@link JwtService} key and exposes
+ * the caller as a {@link JwtPrincipal} (request attribute + getUserPrincipal()).
+ *
+ * Verified tokens are cached by SHA-256 of the token, each entry expiring no later than
+ * the token itself, so repeat requests with the same token skip the HMAC check and JSON
+ * claim parsing. Requests without a token, with an expired one (clients renew it via
+ * /api/auth/refresh) or with an invalid one (tampered, or signed by a key that is no
+ * longer in the key ring) pass through anonymously unless app.auth.jwt.enforce=true;
+ * then /api/** outside /api/auth/** needs a valid token and anything else gets 401.
+ */
+@Component
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String PRINCIPAL_ATTRIBUTE = JwtPrincipal.class.getName();
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtService jwtService;
+    private final boolean enforce;
+    private final Cache<String, JwtPrincipal> verifiedTokens;
+    private final ThreadLocal<MessageDigest> sha256 = ThreadLocal.withInitial(JwtAuthenticationFilter::newDigest);
+
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.auth.jwt.enforce:false}") boolean enforce,
+                                   @Value("${app.auth.jwt.cache-max-size:50000}") long cacheMaxSize) {
+        this.jwtService = jwtService;
+        this.enforce = enforce;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            if (enforce && requiresAuthentication(request)) {
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Missing bearer token");
+                return;
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+
+        JwtPrincipal principal;
+        try {
+            principal = authenticate(header.substring(BEARER_PREFIX.length()).trim());
+        } catch (ExpiredJwtException e) {
+            // access token hết hạn: client gọi /api/auth/refresh; khi chưa enforce thì coi như anonymous
+            if (enforce && requiresAuthentication(request)) {
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token expired");
+                return;
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+        if (principal == null) {
+            // token hỏng / key không còn (vd. khởi động lại với key ngẫu nhiên): như expired, anonymous khi chưa enforce
+            if (enforce && requiresAuthentication(request)) {
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid token");
+                return;
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+
+        request.setAttribute(PRINCIPAL_ATTRIBUTE, principal);
+        chain.doFilter(new AuthenticatedRequest(request, principal), response);
+    }
+
+    // key bị gỡ khỏi key ring -> token ký bằng key đó không được dùng cache nữa
+    @EventListener(JwtKeyRing.JwtKeysRotatedEvent.class)
+    public void onKeysRotated() {
+        verifiedTokens.invalidateAll();
+    }
+
+    /**
+     * @return the verified principal, or null if the token is invalid
+     * @throws ExpiredJwtException if the token was valid but has expired
+     */
+    JwtPrincipal authenticate(String token) {
+        String key = cacheKey(token);
+        JwtPrincipal cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            // Caffeine dọn entry hết hạn theo lô, nên vẫn kiểm tra lại exp
+            if (!cached.expiresAt().isAfter(Instant.now())) {
+                throw new ExpiredJwtException(null, null, "Token expired");
+            }
+            return cached;
+        }
+
+        try {
+            JwtPrincipal principal = jwtService.parseToken(token);
+            verifiedTokens.put(key, principal);
+            return principal;
+        } catch (ExpiredJwtException e) {
+            throw e;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private boolean requiresAuthentication(HttpServletRequest request) {
+        if (HttpMethod.OPTIONS.matches(request.getMethod())) {
+            return false; // CORS preflight
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith("/api/") && !path.startsWith("/api/auth/");
+    }
+
+    private String cacheKey(String token) {
+        byte[] digest = sha256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(digest);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /** Each cached token lives exactly until its own exp claim. */
+    private static class TokenExpiry implements Expiry<String, JwtPrincipal> {
+        @Override
+        public long expireAfterCreate(String key, JwtPrincipal value, long currentTime) {
+            long millis = value.expiresAt().toEpochMilli() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtPrincipal value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtPrincipal value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private static class AuthenticatedRequest extends HttpServletRequestWrapper {
+        private final JwtPrincipal principal;
+
+        AuthenticatedRequest(HttpServletRequest request, JwtPrincipal principal) {
+            super(request);
+            this.principal = principal;
+        }
+
+        @Override
+        public Principal getUserPrincipal() {
+            return principal;
+        }
+
+        @Override
+        public String getRemoteUser() {
+            return principal.getName();
+        }
+    }
+}
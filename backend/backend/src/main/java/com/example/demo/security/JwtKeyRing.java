@@ -0,0 +1,144 @@
+package com.example.demo.security;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.crypto.SecretKey;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * HMAC signing keys for JWTs, identified by "kid" and shared by every node.
+ *
+ * Keys are read from app.auth.jwt.keys-file, a properties file:
+ * <pre>
+ * active=2025-10
+ * key.2025-10=&lt;base64, at least 32 bytes&gt;
+ * key.2025-07=&lt;base64, at least 32 bytes&gt;
+ * </pre>
+ * New tokens are signed with the active key; any listed key can verify. The file is
+ * re-read every app.auth.jwt.reload-interval-ms, so a rotation is: add the new key,
+ * (once every node has it) switch "active", and remove the old key after the longest
+ * token lifetime. No restart, and no mass re-login.
+ *
+ * Without a file, app.auth.jwt.secret (base64) is used as a single key "default".
+ * With neither, a random key is generated (dev only: tokens die with the process).
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    public static final String DEFAULT_KID = "default";
+
+    private final String keysFile;
+    private final ApplicationEventPublisher eventPublisher;
+    private volatile Snapshot snapshot;
+
+    public JwtKeyRing(@Value("${app.auth.jwt.keys-file:}") String keysFile,
+                      @Value("${app.auth.jwt.secret:}") String secret,
+                      ApplicationEventPublisher eventPublisher) {
+        this.keysFile = keysFile;
+        this.eventPublisher = eventPublisher;
+
+        if (!keysFile.isBlank()) {
+            this.snapshot = load(Path.of(keysFile));
+        } else if (!secret.isBlank()) {
+            this.snapshot = new Snapshot(DEFAULT_KID,
+                    Map.of(DEFAULT_KID, Keys.hmacShaKeyFor(Base64.getDecoder().decode(secret))));
+        } else {
+            log.warn("No app.auth.jwt.keys-file or app.auth.jwt.secret configured, using a random key; "
+                    + "tokens will not survive a restart or verify on other nodes");
+            this.snapshot = new Snapshot(DEFAULT_KID,
+                    Map.of(DEFAULT_KID, Keys.secretKeyFor(SignatureAlgorithm.HS256)));
+        }
+        log.info("Loaded JWT keys {} (active: {})", snapshot.keys().keySet(), snapshot.activeKid());
+    }
+
+    public String activeKid() {
+        return snapshot.activeKid();
+    }
+
+    public SecretKey signingKey() {
+        Snapshot current = snapshot;
+        return current.keys().get(current.activeKid());
+    }
+
+    /**
+     * @param kid Key id from the token header; null for tokens issued without one
+     * @return the verification key, or null if the kid is unknown
+     */
+    public SecretKey verificationKey(String kid) {
+        Snapshot current = snapshot;
+        return current.keys().get(kid != null ? kid : current.activeKid());
+    }
+
+    /**
+     * Re-reads the keys file. A broken file keeps the previous keys.
+     */
+    @Scheduled(fixedDelayString = "${app.auth.jwt.reload-interval-ms:60000}")
+    public void reload() {
+        if (keysFile.isBlank()) {
+            return;
+        }
+        try {
+            Snapshot loaded = load(Path.of(keysFile));
+            if (!loaded.equals(snapshot)) {
+                snapshot = loaded;
+                log.info("Reloaded JWT keys {} (active: {})", loaded.keys().keySet(), loaded.activeKid());
+                eventPublisher.publishEvent(new JwtKeysRotatedEvent(this));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to reload JWT keys from {}, keeping previous keys", keysFile, e);
+        }
+    }
+
+    static Snapshot load(Path file) {
+        Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            props.load(reader);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read JWT keys file " + file, e);
+        }
+
+        Map<String, SecretKey> keys = new LinkedHashMap<>();
+        for (String name : props.stringPropertyNames()) {
+            if (name.startsWith("key.")) {
+                byte[] secret = Base64.getDecoder().decode(props.getProperty(name).trim());
+                keys.put(name.substring("key.".length()), Keys.hmacShaKeyFor(secret));
+            }
+        }
+
+        String active = props.getProperty("active", "").trim();
+        if (!keys.containsKey(active)) {
+            throw new IllegalStateException("JWT keys file " + file + " has no key for active kid '" + active + "'");
+        }
+        return new Snapshot(active, Map.copyOf(keys));
+    }
+
+    record Snapshot(String activeKid, Map<String, SecretKey> keys) {
+    }
+
+    /** Published when the key set changes, so cached verifications can be dropped. */
+    public static class JwtKeysRotatedEvent extends ApplicationEvent {
+        public JwtKeysRotatedEvent(Object source) {
+            super(source);
+        }
+    }
+}
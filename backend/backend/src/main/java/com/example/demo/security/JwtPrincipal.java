@@ -0,0 +1,18 @@
+package com.example.demo.security;
+
+import java.security.Principal;
+import java.time.Instant;
+
+/**
+ * Authenticated caller resolved from a verified JWT.
+ *
+ * Controllers can receive it as a {@link Principal} method argument or via
+ * {@code @RequestAttribute(JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE)}.
+ */
+public record JwtPrincipal(String userId, String username, Instant expiresAt) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
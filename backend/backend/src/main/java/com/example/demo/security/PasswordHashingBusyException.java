@@ -0,0 +1,19 @@
+package com.example.demo.security;
+
+/**
+ * Thrown when the password hashing executor cannot accept more work
+ * (queue full or wait timed out). Mapped to 503 Service Unavailable with Retry-After.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
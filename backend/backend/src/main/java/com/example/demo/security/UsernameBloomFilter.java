@@ -0,0 +1,183 @@
+package com.example.demo.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bloom filter of every existing username, so "is this name free?" can be answered
+ * without a database query when it definitely is.
+ *
+ * {@link #mightContain} never returns false for a taken name: false means free, true
+ * means "ask the database" (about app.auth.username-filter.fpp of free names, more once
+ * the user count passes expected-users). Built at startup from a streamed scan of
+ * usernames and kept current by {@link #put} on every insert or rename. Removals are not
+ * possible; a deleted name only costs one extra lookup. Bits are set with lock-free
+ * updates, so writes during the initial build are never lost. Until the build has
+ * finished {@link #isReady()} is false and callers must query the database.
+ */
+@Component
+public class UsernameBloomFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(UsernameBloomFilter.class);
+
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final boolean enabled;
+    private final long expectedUsers;
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicLong insertions = new AtomicLong();
+    private volatile boolean ready;
+
+    private final Counter definitelyFree;
+    private final Counter maybeTaken;
+
+    public UsernameBloomFilter(UserRepository userRepository,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.auth.username-filter.enabled:true}") boolean enabled,
+                               @Value("${app.auth.username-filter.expected-users:1000000}") long expectedUsers,
+                               @Value("${app.auth.username-filter.fpp:0.01}") double fpp) {
+        if (expectedUsers <= 0 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("app.auth.username-filter needs expected-users > 0 and 0 < fpp < 1");
+        }
+        this.userRepository = userRepository;
+        this.transactionManager = transactionManager;
+        this.enabled = enabled;
+        this.expectedUsers = expectedUsers;
+
+        // m = -n ln p / (ln 2)^2, k = m/n ln 2 (≈ 1,2 MB và 7 hàm băm cho 1 triệu user, p = 1%)
+        long bitsNeeded = (long) Math.ceil(-expectedUsers * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray(enabled ? (int) ((bitsNeeded + 63) / 64) : 1);
+        this.bitCount = bits.length() * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitsNeeded / expectedUsers * Math.log(2)));
+
+        this.definitelyFree = Counter.builder("auth.username.checks")
+                .description("Username availability checks, by how they were answered")
+                .tag("result", "filtered")
+                .register(meterRegistry);
+        this.maybeTaken = Counter.builder("auth.username.checks")
+                .description("Username availability checks, by how they were answered")
+                .tag("result", "database")
+                .register(meterRegistry);
+        Gauge.builder("auth.username.filter.insertions", insertions, AtomicLong::get)
+                .description("Usernames added to the Bloom filter")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Builds the filter in the background once the application is up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        Thread builder = new Thread(this::build, "username-filter-build");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    void build() {
+        long start = System.nanoTime();
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            transaction.executeWithoutResult(status -> {
+                try (Stream<String> usernames = userRepository.streamUsernames()) {
+                    usernames.forEach(this::put);
+                }
+            });
+            ready = true;
+            log.info("Username filter built: {} names, {} KB, {} hashes in {} ms",
+                    insertions.get(), bitCount / 8 / 1024, hashCount, (System.nanoTime() - start) / 1_000_000);
+            if (insertions.get() > expectedUsers) {
+                log.warn("Username filter holds {} names, more than app.auth.username-filter.expected-users={}; "
+                        + "false positive rate is above the configured fpp", insertions.get(), expectedUsers);
+            }
+        } catch (RuntimeException e) {
+            log.error("Username filter build failed, availability checks will query the database", e);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void put(String username) {
+        if (!enabled || username == null) {
+            return;
+        }
+        long hash = hash(username);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            long mask = 1L << bit;
+            bits.getAndAccumulate((int) (bit >>> 6), mask, (word, m) -> word | m);
+        }
+        insertions.incrementAndGet();
+    }
+
+    /**
+     * @return false if the username is definitely not taken; true if it may be (or the
+     *         filter is not built yet) and the database has to be asked
+     */
+    public boolean mightContain(String username) {
+        if (!ready || username == null) {
+            maybeTaken.increment();
+            return true;
+        }
+        long hash = hash(username);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                definitelyFree.increment();
+                return false;
+            }
+        }
+        maybeTaken.increment();
+        return true;
+    }
+
+    // băm kép (Kirsch-Mitzenmacher): k vị trí từ 2 nửa của một hash 64-bit
+    private long index(int combined) {
+        return (combined & 0x7fffffffL) % bitCount;
+    }
+
+    // FNV-1a 64-bit trên UTF-8 rồi trộn bit (finalizer của MurmurHash3)
+    private static long hash(String username) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : username.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.demo.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Short-lived cache of recently verified credentials, so repeat logins of hot
+ * (machine / load-test) accounts can skip bcrypt.
+ *
+ * Off by default (app.auth.credential-cache.enabled). The password itself is never
+ * stored: an entry holds an HMAC-SHA256 of the submitted password under a random
+ * per-process key, plus the password hash it was verified against. A hit requires
+ * both the HMAC and the current stored hash to match, so any password change makes
+ * old entries useless even before {@link #invalidate} is called.
+ */
+@Component
+public class VerifiedCredentialCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final boolean enabled;
+    private final Cache<String, Entry> cache;
+    private final SecretKeySpec macKey;
+    private final ThreadLocal<Mac> mac;
+
+    public VerifiedCredentialCache(MeterRegistry meterRegistry,
+                                   @Value("${app.auth.credential-cache.enabled:false}") boolean enabled,
+                                   @Value("${app.auth.credential-cache.ttl-seconds:60}") long ttlSeconds,
+                                   @Value("${app.auth.credential-cache.max-size:10000}") long maxSize) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "credentials");
+
+        byte[] keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+        this.macKey = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+        this.mac = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return true if this exact password was verified against {@code currentHash} within the TTL
+     */
+    public boolean isVerified(String username, String rawPassword, String currentHash) {
+        if (!enabled || username == null || rawPassword == null || currentHash == null) {
+            return false;
+        }
+        Entry entry = cache.getIfPresent(username);
+        return entry != null
+                && entry.passwordHash().equals(currentHash)
+                && MessageDigest.isEqual(entry.passwordMac(), hmac(rawPassword));
+    }
+
+    /**
+     * Records a successful bcrypt verification.
+     */
+    public void remember(String username, String rawPassword, String passwordHash) {
+        if (!enabled || username == null || rawPassword == null || passwordHash == null) {
+            return;
+        }
+        cache.put(username, new Entry(hmac(rawPassword), passwordHash));
+    }
+
+    /**
+     * Drops the entry for a user whose password or username changed.
+     */
+    public void invalidate(String username) {
+        if (username != null) {
+            cache.invalidate(username);
+        }
+    }
+
+    private byte[] hmac(String rawPassword) {
+        return mac.get().doFinal(rawPassword.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(HMAC_ALGORITHM);
+            instance.init(macKey);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    private record Entry(byte[] passwordMac, String passwordHash) {
+    }
+}
@@ -9,6 +9,7 @@ import com.example.demo.dto.LoginRequest;
 import com.example.demo.dto.LoginResponse;
 import com.example.demo.entity.User;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.security.VerifiedCredentialCache;
 
 @Service
 public class AuthService {
@@ -16,15 +17,30 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final PasswordRehashService passwordRehashService;
+    private final VerifiedCredentialCache credentialCache;
+    private final RefreshTokenService refreshTokenService;
 
     public AuthService(UserRepository userRepository, 
                        PasswordEncoder passwordEncoder, 
-                       JwtService jwtService) {
+                       JwtService jwtService,
+                       PasswordRehashService passwordRehashService,
+                       VerifiedCredentialCache credentialCache,
+                       RefreshTokenService refreshTokenService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
+        this.passwordRehashService = passwordRehashService;
+        this.credentialCache = credentialCache;
+        this.refreshTokenService = refreshTokenService;
     }
 
+    /**
+     * Verifies the credentials and issues a token.
+     *
+     * @throws RuntimeException "Invalid username or password" on bad credentials
+     * @throws com.example.demo.security.PasswordHashingBusyException when the bcrypt executor is saturated
+     */
     public LoginResponse authenticate(LoginRequest request) {
         // 1. Tìm user theo username
         Optional<User> userOptional = userRepository.findByUsername(request.getUsername());
@@ -36,17 +52,25 @@ public class AuthService {
 
         User user = userOptional.get();
 
-        // 3. Kiểm tra password (request pass vs DB hash)
-        boolean isMatch = passwordEncoder.matches(request.getPassword(), user.getPasswordHash());
+        // 3. Kiểm tra password (request pass vs DB hash), bỏ qua bcrypt nếu vừa verify xong
+        boolean cached = credentialCache.isVerified(user.getUsername(), request.getPassword(), user.getPasswordHash());
+        boolean isMatch = cached || passwordEncoder.matches(request.getPassword(), user.getPasswordHash());
 
         if (!isMatch) {
             throw new RuntimeException("Invalid username or password");
         }
+        if (!cached) {
+            credentialCache.remember(user.getUsername(), request.getPassword(), user.getPasswordHash());
+        }
+
+        // 4. Hash cũ (cost khác / thuật toán khác) -> rehash nền
+        passwordRehashService.rehashIfNeeded(user, request.getPassword());
 
-        // 4. Sinh Token
+        // 5. Sinh Token
         String token = jwtService.generateToken(user.getId().toString(), user.getUsername());
 
-        // 5. Trả về Response
-        return new LoginResponse(token, user.getId().toString(), user.getUsername());
+        // 6. Trả về Response (kèm refresh token để gia hạn mà không cần bcrypt)
+        return new LoginResponse(token, user.getId().toString(), user.getUsername(),
+                refreshTokenService.issue(user), jwtService.getAccessTtlSeconds());
     }
 }
\ No newline at end of file
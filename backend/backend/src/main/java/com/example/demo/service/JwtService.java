@@ -1,10 +1,19 @@
 package com.example.demo.service;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.example.demo.security.JwtKeyRing;
+import com.example.demo.security.JwtPrincipal;
+
 import java.security.Key;
 import java.util.Date;
 import java.util.Map;
@@ -12,22 +21,84 @@ import java.util.Map;
 @Service
 public class JwtService {
 
-    // khóa bí mật (demo thì để cứng, thực tế nên để trong biến môi trường)
-    private final Key secretKey = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+    // khóa ký/verify lấy từ key ring (file dùng chung cho mọi node, có "kid" để xoay vòng)
+    private final JwtKeyRing keyRing;
+
+    // parser dựng 1 lần, thread-safe; chọn key theo header "kid"
+    private final JwtParser parser;
 
-    // thời gian sống của token (ví dụ: 1 ngày)
-    private final long expirationMs = 24 * 60 * 60 * 1000;
+    // access token sống ngắn (mặc định 15 phút), gia hạn bằng refresh token
+    private final long expirationMs;
+
+    private final Timer signTimer;
+    private final Timer verifyTimer;
+
+    public JwtService(JwtKeyRing keyRing,
+                      MeterRegistry meterRegistry,
+                      @Value("${app.auth.jwt.access-ttl-seconds:900}") long accessTtlSeconds) {
+        this.keyRing = keyRing;
+        this.expirationMs = accessTtlSeconds * 1000;
+        this.signTimer = Timer.builder("auth.jwt.sign")
+                .description("Time to build and sign an access token")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.verifyTimer = Timer.builder("auth.jwt.verify")
+                .description("Time to parse and verify an access token (cache misses of the JWT filter)")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        Key key = keyRing.verificationKey(header.getKeyId());
+                        if (key == null) {
+                            throw new JwtException("Unknown signing key id: " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
 
     public String generateToken(String userId, String username) {
+        return signTimer.record(() -> sign(userId, username));
+    }
+
+    private String sign(String userId, String username) {
         Date now = new Date();
         Date expiry = new Date(now.getTime() + expirationMs);
 
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyRing.activeKid())
                 .setSubject(userId) // thường là id user
                 .addClaims(Map.of("username", username))
                 .setIssuedAt(now)
                 .setExpiration(expiry)
-                .signWith(secretKey)
+                .signWith(keyRing.signingKey())
                 .compact();
     }
+
+    public long getAccessTtlSeconds() {
+        return expirationMs / 1000;
+    }
+
+    /**
+     * Verifies the signature and expiry of a token issued by {@link #generateToken}.
+     *
+     * @throws JwtException if the token is malformed, tampered with, expired or signed by an unknown key
+     */
+    public JwtPrincipal parseToken(String token) {
+        return verifyTimer.record(() -> verify(token));
+    }
+
+    private JwtPrincipal verify(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() == null) {
+            throw new JwtException("Token has no expiration");
+        }
+        return new JwtPrincipal(
+                claims.getSubject(),
+                claims.get("username", String.class),
+                claims.getExpiration().toInstant());
+    }
 }
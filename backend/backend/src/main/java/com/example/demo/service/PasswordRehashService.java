@@ -0,0 +1,95 @@
+package com.example.demo.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.security.PasswordHashingBusyException;
+import com.example.demo.security.VerifiedCredentialCache;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Rehashes passwords whose stored hash uses an outdated cost or algorithm.
+ *
+ * Called after a successful login, when the plain password is known. The work runs
+ * in the background so the login response does not pay for a second bcrypt; if the
+ * queue is full or hashing is busy the upgrade is simply skipped and retried on the
+ * next login.
+ */
+@Service
+public class PasswordRehashService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordRehashService.class);
+
+    private static final int QUEUE_CAPACITY = 256;
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final VerifiedCredentialCache credentialCache;
+    private final ThreadPoolExecutor executor;
+
+    public PasswordRehashService(UserRepository userRepository,
+                                 PasswordEncoder passwordEncoder,
+                                 VerifiedCredentialCache credentialCache) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.credentialCache = credentialCache;
+        this.executor = new ThreadPoolExecutor(
+                1, 1,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-rehash");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Schedules a rehash of the user's password if the stored hash needs an upgrade.
+     *
+     * @param user The user who just authenticated successfully
+     * @param rawPassword The password that matched the stored hash
+     */
+    public void rehashIfNeeded(User user, String rawPassword) {
+        String oldHash = user.getPasswordHash();
+        if (!passwordEncoder.upgradeEncoding(oldHash)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> rehash(user, oldHash, rawPassword));
+        } catch (RejectedExecutionException e) {
+            log.debug("Rehash queue full, skipping upgrade for user {}", user.getId());
+        }
+    }
+
+    private void rehash(User user, String oldHash, String rawPassword) {
+        try {
+            String newHash = passwordEncoder.encode(rawPassword);
+            if (userRepository.updatePasswordHash(user.getId(), oldHash, newHash) == 1) {
+                credentialCache.invalidate(user.getUsername());
+                log.debug("Upgraded password hash for user {}", user.getId());
+            }
+        } catch (PasswordHashingBusyException e) {
+            log.debug("Password hashing busy, skipping upgrade for user {}", user.getId());
+        } catch (RuntimeException e) {
+            log.warn("Failed to upgrade password hash for user {}", user.getId(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,565 @@
+package com.example.demo.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.dto.ProductSuggestion;
+import com.example.demo.repository.ProductRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Chỉ mục gợi ý tên sản phẩm trong bộ nhớ (autocomplete), không cần gọi DB mỗi lần gõ phím.
+ *
+ * Names are split into normalized tokens (lower case, Vietnamese diacritics removed) and
+ * stored in a character trie kept in flat primitive arrays; each token node points to a
+ * sorted int[] posting list of dense document numbers. A query "dell xp" returns products
+ * that contain the token "dell" and a token starting with "xp"; the prefix subtree is
+ * walked breadth-first, so shorter (closer) completions come first, and the walk stops
+ * after k hits or {@link #MAX_CANDIDATES} postings.
+ *
+ * The index is built at startup from a streamed scan and kept current by the write paths
+ * (create/update/delete/bulk/import) calling {@link #put} and {@link #remove}. Until the
+ * first build has finished {@link #isReady()} is false and callers should fall back to
+ * the database search. Size is capped by app.products.autocomplete.max-products and
+ * reported through the products.autocomplete.* gauges.
+ */
+@Component
+public class ProductAutocompleteIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductAutocompleteIndex.class);
+
+    /** Upper bound of postings inspected per query, keeps one-letter prefixes cheap. */
+    static final int MAX_CANDIDATES = 10_000;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int NONE = -1;
+
+    private final ProductRepository productRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final boolean enabled;
+    private final int maxProducts;
+    private final Counter dropped;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // --- trie: node i = (labels[i], firstChild[i], nextSibling[i], posting[i]); node 0 là gốc ---
+    private char[] labels = new char[1024];
+    private int[] firstChild = new int[1024];
+    private int[] nextSibling = new int[1024];
+    private int[] posting = new int[1024];
+    private int nodeCount;
+    // node / posting bị bỏ khi đổi tên, xóa: tái sử dụng, nên bộ nhớ theo số token đang dùng chứ không theo lịch sử
+    private int[] freeNodes = new int[64];
+    private int freeNodeCount;
+
+    // --- posting list: postings[p][0..postingSizes[p]) là số hiệu document, tăng dần ---
+    private int[][] postings = new int[256][];
+    private int[] postingSizes = new int[256];
+    private int postingCount;
+    private int[] freePostings = new int[64];
+    private int freePostingCount;
+
+    // --- document: số hiệu dày đặc, tái sử dụng khi xóa ---
+    private UUID[] productIds = new UUID[1024];
+    private String[] names = new String[1024];
+    private int docCount;
+    private int[] freeDocs = new int[64];
+    private int freeCount;
+    private final Map<UUID, Integer> docByProduct = new HashMap<>();
+
+    // ghi trong lúc đang build: dữ liệu quét từ DB cũ hơn, không được ghi đè
+    private boolean building;
+    private final Set<UUID> touchedDuringBuild = new HashSet<>();
+    private volatile boolean ready;
+
+    public ProductAutocompleteIndex(ProductRepository productRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.products.autocomplete.enabled:true}") boolean enabled,
+                                    @Value("${app.products.autocomplete.max-products:2000000}") int maxProducts) {
+        this.productRepository = productRepository;
+        this.transactionManager = transactionManager;
+        this.enabled = enabled;
+        this.maxProducts = maxProducts;
+        newNode('\0'); // gốc
+
+        this.dropped = Counter.builder("products.autocomplete.dropped")
+                .description("Products not indexed because max-products was reached")
+                .register(meterRegistry);
+        Gauge.builder("products.autocomplete.products", this, ProductAutocompleteIndex::size)
+                .description("Products in the autocomplete index")
+                .register(meterRegistry);
+        Gauge.builder("products.autocomplete.nodes", this, ProductAutocompleteIndex::liveNodes)
+                .description("Trie nodes in the autocomplete index")
+                .register(meterRegistry);
+        Gauge.builder("products.autocomplete.memory", this, ProductAutocompleteIndex::estimatedBytes)
+                .description("Estimated heap used by the autocomplete index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Builds the index in the background once the application is up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        Thread builder = new Thread(this::build, "autocomplete-index-build");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    void build() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            building = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            transaction.executeWithoutResult(status -> {
+                try (Stream<ProductSuggestion> rows = productRepository.streamSuggestions()) {
+                    rows.forEach(row -> putFromScan(row.id(), row.name()));
+                }
+            });
+            ready = true;
+            log.info("Autocomplete index built: {} products, {} nodes, ~{} KB in {} ms",
+                    size(), liveNodes(), estimatedBytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Autocomplete index build failed, falling back to database search", e);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                building = false;
+                touchedDuringBuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** Adds or renames a product. */
+    public void put(UUID productId, String name) {
+        if (!enabled || productId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (building) {
+                touchedDuringBuild.add(productId);
+            }
+            doPut(productId, name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID productId) {
+        if (!enabled || productId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (building) {
+                touchedDuringBuild.add(productId);
+            }
+            doRemove(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putFromScan(UUID productId, String name) {
+        lock.writeLock().lock();
+        try {
+            if (!touchedDuringBuild.contains(productId)) {
+                doPut(productId, name);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Top-k products whose name contains every complete token of the query and a token
+     * starting with the last (possibly partial) one.
+     */
+    public List<ProductSuggestion> suggest(String query, int k) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || k <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int prefixNode = find(tokens.get(tokens.size() - 1));
+            if (prefixNode == NONE) {
+                return List.of();
+            }
+
+            // các token trước phải khớp nguyên token
+            int[] required = new int[tokens.size() - 1];
+            for (int i = 0; i < required.length; i++) {
+                int node = find(tokens.get(i));
+                if (node == NONE || posting[node] == NONE) {
+                    return List.of();
+                }
+                required[i] = posting[node];
+            }
+
+            List<ProductSuggestion> result = new ArrayList<>(k);
+            Set<Integer> seen = new HashSet<>();
+            int inspected = 0;
+
+            // BFS trên cây con: token ngắn (gần với prefix) được ưu tiên
+            int[] queue = new int[16];
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = prefixNode;
+            while (head < tail && result.size() < k && inspected < MAX_CANDIDATES) {
+                int node = queue[head++];
+                int p = posting[node];
+                if (p != NONE) {
+                    int[] docs = postings[p];
+                    for (int i = 0; i < postingSizes[p] && result.size() < k && inspected < MAX_CANDIDATES; i++) {
+                        inspected++;
+                        int doc = docs[i];
+                        if (containsAll(required, doc) && seen.add(doc)) {
+                            result.add(new ProductSuggestion(productIds[doc], names[doc]));
+                        }
+                    }
+                }
+                for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                    if (tail == queue.length) {
+                        // dồn phần đã xử lý về đầu trước khi nới mảng
+                        queue = Arrays.copyOfRange(queue, head, head + Math.max(16, (tail - head) * 2));
+                        tail -= head;
+                        head = 0;
+                    }
+                    queue[tail++] = child;
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        return docByProduct.size();
+    }
+
+    /** Trie nodes in use (including the root); freed nodes are reused, not counted. */
+    int liveNodes() {
+        lock.readLock().lock();
+        try {
+            return nodeCount - freeNodeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rough heap footprint: trie arrays, posting arrays, document tables and names.
+     */
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = (long) labels.length * (2 + 4 + 4 + 4);
+            bytes += (long) postings.length * 8 + (long) postingSizes.length * 4;
+            for (int p = 0; p < postingCount; p++) {
+                if (postings[p] != null) {
+                    bytes += 16 + (long) postings[p].length * 4;
+                }
+            }
+            bytes += (long) freeNodes.length * 4 + (long) freePostings.length * 4;
+            bytes += (long) productIds.length * 8 + (long) names.length * 8 + (long) freeDocs.length * 4;
+            for (int doc = 0; doc < docCount; doc++) {
+                if (names[doc] != null) {
+                    bytes += 32 + 40 + names[doc].length() * 2L; // UUID + String
+                }
+            }
+            bytes += docByProduct.size() * 48L; // entry HashMap + Integer
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- cập nhật (gọi khi đang giữ write lock) ---
+
+    private void doPut(UUID productId, String name) {
+        Integer existing = docByProduct.get(productId);
+        if (existing != null) {
+            if (String.valueOf(name).equals(names[existing])) {
+                return;
+            }
+            doRemove(productId);
+        }
+        if (name == null || name.isBlank()) {
+            return;
+        }
+        if (docByProduct.size() >= maxProducts) {
+            dropped.increment();
+            return;
+        }
+
+        int doc = allocateDoc();
+        productIds[doc] = productId;
+        names[doc] = name;
+        docByProduct.put(productId, doc);
+        for (String token : new LinkedHashSet<>(tokenize(name))) {
+            addPosting(insert(token), doc);
+        }
+    }
+
+    private void doRemove(UUID productId) {
+        Integer doc = docByProduct.remove(productId);
+        if (doc == null) {
+            return;
+        }
+        Set<String> tokens = new LinkedHashSet<>(tokenize(names[doc]));
+        for (String token : tokens) {
+            int node = find(token);
+            if (node != NONE && posting[node] != NONE) {
+                int p = posting[node];
+                removePosting(p, doc);
+                if (postingSizes[p] == 0) {
+                    freePosting(p);
+                    posting[node] = NONE;
+                }
+            }
+        }
+        for (String token : tokens) {
+            prune(token);
+        }
+        productIds[doc] = null;
+        names[doc] = null;
+        if (freeCount == freeDocs.length) {
+            freeDocs = Arrays.copyOf(freeDocs, freeCount * 2);
+        }
+        freeDocs[freeCount++] = doc;
+    }
+
+    private int allocateDoc() {
+        if (freeCount > 0) {
+            return freeDocs[--freeCount];
+        }
+        if (docCount == productIds.length) {
+            productIds = Arrays.copyOf(productIds, docCount * 2);
+            names = Arrays.copyOf(names, docCount * 2);
+        }
+        return docCount++;
+    }
+
+    private int insert(String token) {
+        int node = 0;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            int child = childOf(node, c);
+            if (child == NONE) {
+                child = newNode(c);
+                nextSibling[child] = firstChild[node];
+                firstChild[node] = child;
+            }
+            node = child;
+        }
+        return node;
+    }
+
+    // Bỏ các node cuối đường đi của token không còn posting và không còn con, từ dưới lên
+    private void prune(String token) {
+        int[] path = new int[token.length() + 1];
+        int depth = 0;
+        for (int i = 0; i < token.length(); i++) {
+            int child = childOf(path[depth], token.charAt(i));
+            if (child == NONE) {
+                return; // đã được dọn khi prune một token khác cùng tiền tố
+            }
+            path[++depth] = child;
+        }
+        for (; depth > 0; depth--) {
+            int node = path[depth];
+            if (posting[node] != NONE || firstChild[node] != NONE) {
+                return;
+            }
+            unlink(path[depth - 1], node);
+            freeNode(node);
+        }
+    }
+
+    private void unlink(int parent, int node) {
+        if (firstChild[parent] == node) {
+            firstChild[parent] = nextSibling[node];
+            return;
+        }
+        for (int child = firstChild[parent]; child != NONE; child = nextSibling[child]) {
+            if (nextSibling[child] == node) {
+                nextSibling[child] = nextSibling[node];
+                return;
+            }
+        }
+    }
+
+    private void freeNode(int node) {
+        if (freeNodeCount == freeNodes.length) {
+            freeNodes = Arrays.copyOf(freeNodes, freeNodeCount * 2);
+        }
+        freeNodes[freeNodeCount++] = node;
+    }
+
+    private void freePosting(int p) {
+        postings[p] = null;
+        postingSizes[p] = 0;
+        if (freePostingCount == freePostings.length) {
+            freePostings = Arrays.copyOf(freePostings, freePostingCount * 2);
+        }
+        freePostings[freePostingCount++] = p;
+    }
+
+    private int find(String token) {
+        int node = 0;
+        for (int i = 0; i < token.length() && node != NONE; i++) {
+            node = childOf(node, token.charAt(i));
+        }
+        return node;
+    }
+
+    private int childOf(int node, char c) {
+        for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+            if (labels[child] == c) {
+                return child;
+            }
+        }
+        return NONE;
+    }
+
+    private int newNode(char label) {
+        int node = freeNodeCount > 0 ? freeNodes[--freeNodeCount] : appendNode();
+        labels[node] = label;
+        firstChild[node] = NONE;
+        nextSibling[node] = NONE;
+        posting[node] = NONE;
+        return node;
+    }
+
+    private int appendNode() {
+        if (nodeCount == labels.length) {
+            int capacity = nodeCount * 2;
+            labels = Arrays.copyOf(labels, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            posting = Arrays.copyOf(posting, capacity);
+        }
+        return nodeCount++;
+    }
+
+    private void addPosting(int node, int doc) {
+        if (posting[node] == NONE) {
+            int p;
+            if (freePostingCount > 0) {
+                p = freePostings[--freePostingCount];
+            } else {
+                if (postingCount == postings.length) {
+                    postings = Arrays.copyOf(postings, postingCount * 2);
+                    postingSizes = Arrays.copyOf(postingSizes, postingCount * 2);
+                }
+                p = postingCount++;
+            }
+            postings[p] = new int[2];
+            postingSizes[p] = 0;
+            posting[node] = p;
+        }
+
+        int p = posting[node];
+        int size = postingSizes[p];
+        int at = Arrays.binarySearch(postings[p], 0, size, doc);
+        if (at >= 0) {
+            return;
+        }
+        at = -at - 1;
+        if (size == postings[p].length) {
+            postings[p] = Arrays.copyOf(postings[p], size + (size >> 1) + 1);
+        }
+        System.arraycopy(postings[p], at, postings[p], at + 1, size - at);
+        postings[p][at] = doc;
+        postingSizes[p] = size + 1;
+    }
+
+    private void removePosting(int p, int doc) {
+        int size = postingSizes[p];
+        int at = Arrays.binarySearch(postings[p], 0, size, doc);
+        if (at < 0) {
+            return;
+        }
+        System.arraycopy(postings[p], at + 1, postings[p], at, size - at - 1);
+        postingSizes[p] = size - 1;
+    }
+
+    private boolean containsAll(int[] required, int doc) {
+        for (int p : required) {
+            if (Arrays.binarySearch(postings[p], 0, postingSizes[p], doc) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lower-cases, strips diacritics ("Điện thoại" -> "dien", "thoai") and splits on
+     * anything that is not a letter or digit.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD);
+        normalized = COMBINING_MARKS.matcher(normalized).replaceAll("")
+                .replace('đ', 'd')
+                .replace('Đ', 'D')
+                .toLowerCase(Locale.ROOT);
+
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
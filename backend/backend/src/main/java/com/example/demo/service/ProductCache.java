@@ -0,0 +1,92 @@
+package com.example.demo.service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.entity.Product;
+import com.example.demo.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Read-through cache in front of {@link ProductRepository#findById}.
+ *
+ * Backed by Caffeine (W-TinyLFU admission), bounded by an estimated byte weight
+ * and a TTL. A hit is served from memory without borrowing a pooled connection.
+ * Callers must {@link #evict} after every create/update/delete.
+ *
+ * Metrics are published as cache.gets{result=hit|miss}, cache.evictions,
+ * cache.eviction.weight and cache.size with tag cache=products.
+ */
+@Component
+public class ProductCache {
+
+    public static final String CACHE_NAME = "products";
+
+    // ước lượng overhead của object Product + UUID + các wrapper (Double, Integer, OffsetDateTime)
+    private static final int BASE_ENTRY_BYTES = 256;
+
+    private final ProductRepository productRepository;
+    private final Cache<UUID, Product> cache;
+
+    public ProductCache(ProductRepository productRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.products.cache.max-weight-bytes:67108864}") long maxWeightBytes,
+                        @Value("${app.products.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.productRepository = productRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((UUID id, Product product) -> estimateSize(product))
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the product from cache, loading it from the database on a miss.
+     * Missing products are not cached.
+     */
+    public Optional<Product> findById(UUID id) {
+        return Optional.ofNullable(
+                cache.get(id, key -> productRepository.findById(key).orElse(null)));
+    }
+
+    public void evict(UUID id) {
+        if (id != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Approximate retained size of a cached product in bytes (UTF-16 strings).
+     */
+    static int estimateSize(Product product) {
+        int size = BASE_ENTRY_BYTES;
+        size += stringBytes(product.getName());
+        size += stringBytes(product.getDescription());
+        size += stringBytes(product.getStatus());
+        // người tạo là proxy LAZY: chỉ tính khi đã được nạp, không gây thêm query
+        if (product.getCreatedByUser() != null && Hibernate.isInitialized(product.getCreatedByUser())) {
+            size += 64 + stringBytes(product.getCreatedByUser().getUsername())
+                    + stringBytes(product.getCreatedByUser().getPasswordHash());
+        }
+        return size;
+    }
+
+    private static int stringBytes(String value) {
+        return value == null ? 0 : 40 + 2 * value.length();
+    }
+}
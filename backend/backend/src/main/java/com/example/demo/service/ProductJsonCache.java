@@ -0,0 +1,162 @@
+package com.example.demo.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.dto.ProductView;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache JSON đã serialize sẵn (UTF-8, tùy chọn gzip) của từng sản phẩm.
+ *
+ * Entries are keyed by product id and tagged with the product version; a lookup with a
+ * different version re-serializes and replaces the entry. Every write bumps the version
+ * (JPA @Version and the native UPDATEs alike), so a stale body can never be served and
+ * no write path needs to invalidate this cache explicitly; {@link #evict} only frees
+ * memory early. Listing pages are assembled from the same per-product fragments, so
+ * only changed products are serialized again.
+ *
+ * Bounded by app.products.json-cache.max-weight-bytes; metrics are published with tag
+ * cache=products-json.
+ */
+@Component
+public class ProductJsonCache {
+
+    public static final String CACHE_NAME = "products-json";
+
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int gzipMinBytes;
+    private final Cache<UUID, Entry> cache;
+
+    public ProductJsonCache(ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.products.json-cache.enabled:true}") boolean enabled,
+                            @Value("${app.products.json-cache.max-weight-bytes:33554432}") long maxWeightBytes,
+                            @Value("${app.products.json-cache.gzip-min-bytes:1024}") int gzipMinBytes) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.gzipMinBytes = gzipMinBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((UUID id, Entry entry) -> entry.weight())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * @return UTF-8 JSON of the product, identical to what Jackson would write for the view
+     */
+    public byte[] json(ProductView view) {
+        return entry(view).json();
+    }
+
+    /**
+     * @return gzip of {@link #json}, or null if the body is smaller than
+     *         app.products.json-cache.gzip-min-bytes and not worth compressing
+     */
+    public byte[] gzip(ProductView view) {
+        Entry entry = entry(view);
+        if (entry.json().length < gzipMinBytes) {
+            return null;
+        }
+        if (entry.gzip() != null) {
+            return entry.gzip();
+        }
+        Entry compressed = new Entry(entry.version(), entry.json(), compress(entry.json()));
+        if (cacheable(view)) {
+            cache.put(view.id(), compressed); // put lại để Caffeine tính lại weight
+        }
+        return compressed.gzip();
+    }
+
+    /**
+     * @return UTF-8 JSON array of the products, built from the cached per-product bodies
+     */
+    public byte[] jsonArray(List<ProductView> views) {
+        byte[][] parts = new byte[views.size()][];
+        int length = 2 + Math.max(0, views.size() - 1);
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = json(views.get(i));
+            length += parts[i].length;
+        }
+
+        byte[] result = new byte[length];
+        int at = 0;
+        result[at++] = '[';
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                result[at++] = ',';
+            }
+            System.arraycopy(parts[i], 0, result, at, parts[i].length);
+            at += parts[i].length;
+        }
+        result[at] = ']';
+        return result;
+    }
+
+    public void evict(UUID id) {
+        if (id != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    private Entry entry(ProductView view) {
+        if (!cacheable(view)) {
+            return new Entry(-1, serialize(view), null);
+        }
+        Entry entry = cache.getIfPresent(view.id());
+        if (entry != null && entry.version() == view.version()) {
+            return entry;
+        }
+        // chưa có hoặc version cũ: serialize lại, ghi đè entry của version trước
+        entry = new Entry(view.version(), serialize(view), null);
+        cache.put(view.id(), entry);
+        return entry;
+    }
+
+    private boolean cacheable(ProductView view) {
+        // bản expand người tạo không cache: chỉ cache dạng mặc định
+        return enabled && view.id() != null && view.version() != null && view.createdByUser() == null;
+    }
+
+    private byte[] serialize(ProductView view) {
+        try {
+            return objectMapper.writeValueAsBytes(view);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] compress(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 3 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private record Entry(long version, byte[] json, byte[] gzip) {
+        int weight() {
+            return ENTRY_OVERHEAD_BYTES + json.length + (gzip == null ? 0 : gzip.length);
+        }
+    }
+}
@@ -1,36 +1,95 @@
 package com.example.demo.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.example.demo.dto.BulkOperationResult;
+import com.example.demo.dto.ProductBulkUpdate;
 import com.example.demo.dto.ProductDto;
+import com.example.demo.dto.ProductView;
 import com.example.demo.entity.Product;
 import com.example.demo.mapper.ProductMapper;
 import com.example.demo.repository.ProductRepository;
+import com.example.demo.util.XssSanitizer;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 @Service
 public class ProductService {
 
+    private static final Logger log = LoggerFactory.getLogger(ProductService.class);
+
+    private static final int DEFAULT_IMPORT_CHUNK_SIZE = 1000;
+
     @Autowired
     private ProductRepository productRepository;
 
     @Autowired
     private ProductMapper productMapper;
 
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductAutocompleteIndex autocompleteIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // số dòng mỗi transaction khi import; JDBC batch size cấu hình riêng (hibernate.jdbc.batch_size)
+    @Value("${app.products.import.chunk-size:1000}")
+    private int importChunkSize;
+
      //Tạo sản phẩm mới
     public ProductDto createProduct(ProductDto productDto) {
         Product product = productMapper.toEntity(productDto);
         Product savedProduct = productRepository.save(product);
+        productCache.evict(savedProduct.getId());
+        autocompleteIndex.put(savedProduct.getId(), savedProduct.getName());
         return productMapper.toDto(savedProduct);
     }
 
     //Lấy sản phẩm theo ID
     public ProductDto getProductById(UUID id) {
-        Product product = productRepository.findById(id)
+        Product product = productCache.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
         return productMapper.toDto(product);
     }
@@ -50,6 +109,8 @@ public class ProductService {
         product.setDescription(productDto.getDescription());
 
         Product updatedProduct = productRepository.save(product);
+        productCache.evict(id);
+        autocompleteIndex.put(id, updatedProduct.getName());
         return productMapper.toDto(updatedProduct);
     }
 
@@ -59,11 +120,268 @@ public class ProductService {
             throw new RuntimeException("Product not found with id: " + id);
         }
         productRepository.deleteById(id);
+        productCache.evict(id);
+        autocompleteIndex.remove(id);
     }
+    /**
+     * Cập nhật nhiều sản phẩm trong 1 transaction, không load entity.
+     * Null fields are left unchanged; if an id appears more than once, the last change wins.
+     *
+     * @return number of updated rows and the ids that do not exist
+     */
+    @Transactional
+    public BulkOperationResult bulkUpdate(List<ProductBulkUpdate> changes) {
+        Map<UUID, ProductBulkUpdate> byId = new LinkedHashMap<>();
+        for (ProductBulkUpdate change : changes) {
+            byId.put(change.getId(), change);
+        }
+
+        List<UUID> updated = productRepository.bulkUpdate(List.copyOf(byId.values()));
+        afterCommit(() -> {
+            for (UUID id : updated) {
+                productCache.evict(id);
+                String newName = byId.get(id).getName();
+                if (newName != null) {
+                    autocompleteIndex.put(id, newName);
+                }
+            }
+        });
+        return new BulkOperationResult(updated.size(), missing(byId.keySet(), updated));
+    }
+
+    /**
+     * Xóa nhiều sản phẩm bằng 1 câu DELETE.
+     *
+     * @return number of deleted rows and the ids that do not exist
+     */
+    @Transactional
+    public BulkOperationResult bulkDelete(List<UUID> ids) {
+        Set<UUID> requested = new LinkedHashSet<>(ids);
+        List<UUID> deleted = productRepository.bulkDelete(requested);
+        afterCommit(() -> {
+            for (UUID id : deleted) {
+                productCache.evict(id);
+                autocompleteIndex.remove(id);
+            }
+        });
+        return new BulkOperationResult(deleted.size(), missing(requested, deleted));
+    }
+
+    // Bỏ cache / sửa chỉ mục sau khi commit: trước đó một GET đồng thời sẽ nạp lại dòng cũ vào cache,
+    // còn nếu rollback thì chỉ mục autocomplete lệch với DB. Không có transaction -> chạy ngay.
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static List<UUID> missing(Set<UUID> requested, List<UUID> found) {
+        Set<UUID> missing = new LinkedHashSet<>(requested);
+        found.forEach(missing::remove);
+        return List.copyOf(missing);
+    }
+
     //Lấy tất cả sản phẩm với phân trang
     public Page<ProductDto> getAllProducts(Pageable pageable) {
         return productRepository.findAll(pageable)
                 .map(productMapper::toDto);
     }
 
-}
\ No newline at end of file
+    /**
+     * Ghi toàn bộ catalog ra stream theo kiểu streaming (export cho indexer, feed hằng đêm).
+     *
+     * Rows are read through a server-side cursor (fixed fetch size) and serialized
+     * one by one, so memory use stays constant regardless of table size. The output
+     * is flushed and the persistence context cleared every fetch batch, so the first
+     * bytes reach the client long before the last row is read. Products are written as
+     * {@link ProductView} (creator as id only), so the users table is never read.
+     *
+     * @param out Target stream, left open for the caller
+     * @param ndjson true for newline-delimited JSON, false for a single JSON array
+     */
+    @Transactional(readOnly = true)
+    public void exportProducts(OutputStream out, boolean ndjson) throws IOException {
+        ObjectWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (Stream<Product> products = productRepository.streamAll();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (ndjson) {
+                generator.setRootValueSeparator(new SerializedString("\n"));
+            } else {
+                generator.writeStartArray();
+            }
+
+            int written = 0;
+            Iterator<Product> it = products.iterator();
+            while (it.hasNext()) {
+                writer.writeValue(generator, ProductView.of(it.next()));
+                if (++written % ProductRepository.EXPORT_FETCH_SIZE == 0) {
+                    generator.flush();
+                    entityManager.clear(); // không giữ entity đã ghi trong bộ nhớ
+                }
+            }
+
+            if (ndjson) {
+                if (written > 0) {
+                    generator.writeRaw('\n');
+                }
+            } else {
+                generator.writeEndArray();
+            }
+        }
+    }
+
+    /**
+     * Nhập hàng loạt sản phẩm từ một JSON array hoặc NDJSON (mỗi dòng một sản phẩm).
+     *
+     * The input is parsed as a stream, so its size is not bounded by memory. Each row is
+     * validated with {@link XssSanitizer}; valid rows are persisted in chunks of
+     * app.products.import.chunk-size, one transaction per chunk, and Hibernate sends the
+     * INSERTs as JDBC batches. Client-supplied ids are ignored, so every row is a plain
+     * insert (no SELECT-before-merge).
+     *
+     * The result is written to {@code out} as it goes, one chunk at a time:
+     * {@code {"results":[{"row":1,"status":"created","id":"..."},{"row":2,"status":"failed","error":"..."}],
+     * "total":2,"created":1,"failed":1}}. A chunk that fails in the database is reported as
+     * failed row by row (without the driver message) and the import continues; malformed
+     * JSON stops the import and adds an {@code "error"} field. Any other failure, such as the
+     * client disconnecting, propagates and fails the request.
+     *
+     * @param in JSON array or NDJSON of products, in the same shape as POST /api/products
+     * @param out Target stream, left open for the caller
+     */
+    public ImportSummary importProducts(InputStream in, OutputStream out) throws IOException {
+        int chunkSize = importChunkSize > 0 ? importChunkSize : DEFAULT_IMPORT_CHUNK_SIZE;
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        ImportSummary summary = new ImportSummary();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("results");
+
+            String fatalError = null;
+            // JSON array: duyệt từng phần tử; NDJSON: duyệt từng giá trị gốc
+            try (MappingIterator<Product> rows = objectMapper.readerFor(Product.class).readValues(in)) {
+                int rowNumber = 0;
+                while (rows.hasNextValue()) {
+                    rowNumber++;
+                    chunk.add(readRow(rows, rowNumber));
+                    if (chunk.size() >= chunkSize) {
+                        writeChunk(chunk, transaction, generator, summary);
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                // JSON hỏng: không đọc tiếp được, vẫn lưu các dòng đã đọc.
+                // Chỉ lỗi parse mới báo cho client; lỗi I/O (client ngắt), DB... để request lỗi như thường
+                fatalError = "Malformed input: " + e.getOriginalMessage();
+            }
+            writeChunk(chunk, transaction, generator, summary);
+
+            generator.writeEndArray();
+            generator.writeNumberField("total", summary.getTotal());
+            generator.writeNumberField("created", summary.getCreated());
+            generator.writeNumberField("failed", summary.getFailed());
+            if (fatalError != null) {
+                generator.writeStringField("error", fatalError);
+            }
+            generator.writeEndObject();
+        }
+
+        log.info("Product import finished: {} rows, {} created, {} failed",
+                summary.getTotal(), summary.getCreated(), summary.getFailed());
+        return summary;
+    }
+
+    private ImportRow readRow(MappingIterator<Product> rows, int rowNumber) throws IOException {
+        Product product;
+        try {
+            product = rows.nextValue();
+        } catch (DatabindException e) {
+            // sai kiểu dữ liệu ở 1 dòng: báo lỗi dòng đó, iterator tự bỏ qua phần còn lại của dòng
+            return new ImportRow(rowNumber, null, "Invalid row: " + e.getOriginalMessage());
+        }
+        if (product == null) {
+            return new ImportRow(rowNumber, null, "Row is empty");
+        }
+
+        XssSanitizer.ValidationResult validation =
+                XssSanitizer.validateProduct(product.getName(), product.getDescription());
+        if (!validation.isValid()) {
+            return new ImportRow(rowNumber, null, validation.getErrorMessage());
+        }
+
+        product.setId(null); // luôn INSERT, id do Hibernate sinh
+        product.setCreatedByUser(null);
+        return new ImportRow(rowNumber, product, null);
+    }
+
+    private void writeChunk(List<ImportRow> chunk, TransactionTemplate transaction,
+                            JsonGenerator generator, ImportSummary summary) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        String chunkError = null;
+        if (chunk.stream().anyMatch(row -> row.error() == null)) {
+            try {
+                transaction.executeWithoutResult(status -> {
+                    for (ImportRow row : chunk) {
+                        if (row.error() == null) {
+                            entityManager.persist(row.product());
+                        }
+                    }
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+            } catch (RuntimeException e) {
+                log.warn("Product import chunk failed", e);
+                chunkError = "Database error"; // chi tiết chỉ ghi log, không trả SQL/driver message cho client
+            }
+        }
+
+        for (ImportRow row : chunk) {
+            String error = row.error() != null ? row.error() : chunkError;
+            generator.writeStartObject();
+            generator.writeNumberField("row", row.rowNumber());
+            if (error == null) {
+                generator.writeStringField("status", "created");
+                generator.writeStringField("id", String.valueOf(row.product().getId()));
+                autocompleteIndex.put(row.product().getId(), row.product().getName());
+                summary.created++;
+            } else {
+                generator.writeStringField("status", "failed");
+                generator.writeStringField("error", error);
+                summary.failed++;
+            }
+            generator.writeEndObject();
+        }
+        generator.flush();
+        chunk.clear();
+    }
+
+    private record ImportRow(int rowNumber, Product product, String error) {
+    }
+
+    /**
+     * Counters of one import run.
+     */
+    public static class ImportSummary {
+        private int created;
+        private int failed;
+
+        public int getTotal() { return created + failed; }
+        public int getCreated() { return created; }
+        public int getFailed() { return failed; }
+    }
+}
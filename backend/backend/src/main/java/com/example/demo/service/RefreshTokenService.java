@@ -0,0 +1,118 @@
+package com.example.demo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.entity.RefreshToken;
+import com.example.demo.entity.User;
+import com.example.demo.repository.RefreshTokenRepository;
+
+/**
+ * Long-lived, single-use refresh tokens.
+ *
+ * The client gets an opaque random token; only its SHA-256 is stored. Renewing a
+ * session costs one indexed lookup plus signing a new access token (one HMAC),
+ * instead of a bcrypt verify. Each use deletes the old row and issues a new token
+ * (rotation), so a stolen token stops working as soon as either party uses it.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${app.auth.refresh.ttl-days:30}") long ttlDays) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.ttl = Duration.ofDays(ttlDays);
+    }
+
+    /**
+     * Issues a new refresh token for the user.
+     *
+     * @return the raw token to hand to the client (never stored)
+     */
+    @Transactional
+    public String issue(User user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(new RefreshToken(hash(rawToken), user, OffsetDateTime.now().plus(ttl)));
+        return rawToken;
+    }
+
+    /**
+     * Consumes a refresh token and issues its replacement.
+     *
+     * @return the owner and the new raw token, or empty if the token is unknown, expired or already used
+     */
+    @Transactional
+    public Optional<Rotation> rotate(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            return Optional.empty();
+        }
+
+        Optional<RefreshToken> stored = refreshTokenRepository.findByTokenHash(hash(rawToken));
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+
+        RefreshToken token = stored.get();
+        // xóa có điều kiện: request song song dùng cùng token thì chỉ 1 request thắng
+        if (refreshTokenRepository.deleteByIdReturningCount(token.getId()) != 1
+                || token.getExpiresAt().isBefore(OffsetDateTime.now())) {
+            return Optional.empty();
+        }
+
+        User user = token.getUser();
+        return Optional.of(new Rotation(user, issue(user)));
+    }
+
+    @Transactional
+    public void revoke(String rawToken) {
+        if (rawToken != null && !rawToken.isBlank()) {
+            refreshTokenRepository.deleteByTokenHash(hash(rawToken));
+        }
+    }
+
+    // đổi mật khẩu / xóa user -> thu hồi mọi phiên
+    @Transactional
+    public void revokeAll(UUID userId) {
+        refreshTokenRepository.deleteAllByUserId(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.refresh.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        refreshTokenRepository.deleteExpired(OffsetDateTime.now());
+    }
+
+    static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public record Rotation(User user, String refreshToken) {
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.repository.ProductRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Giữ / trả hàng trong kho, an toàn khi nhiều người mua cùng lúc.
+ *
+ * Every change is a single conditional UPDATE ({@code stock_quantity >= ?} checked and
+ * decremented in one statement), so concurrent buyers can never oversell and no row is
+ * locked beyond that statement.
+ *
+ * With app.products.stock.batching.enabled, reservations are coalesced per stripe
+ * (flat combining): callers queue their request, and whichever caller holds the stripe
+ * lock drains the queue and sends one UPDATE per product for the summed quantity. Under
+ * low load that is the caller's own request with no added delay; under flash-sale load
+ * everything that arrived during the previous statement goes out as one. At most one
+ * statement per stripe runs at a time, which also bounds connection-pool use. If the
+ * summed quantity does not fit, the batch falls back to one UPDATE per request in arrival
+ * order, so the outcome matches what unbatched requests would have got.
+ */
+@Service
+public class StockService {
+
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final Stripe[] stripes;
+    private final Counter statements;
+    private final DistributionSummary batchSize;
+
+    public StockService(ProductRepository productRepository,
+                        ProductCache productCache,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.products.stock.batching.enabled:false}") boolean batching,
+                        @Value("${app.products.stock.batching.stripes:8}") int stripeCount) {
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+
+        if (batching) {
+            this.stripes = new Stripe[Math.max(1, stripeCount)];
+            for (int i = 0; i < stripes.length; i++) {
+                stripes[i] = new Stripe();
+            }
+        } else {
+            this.stripes = null;
+        }
+
+        this.statements = Counter.builder("products.stock.reserve.statements")
+                .description("UPDATE statements sent for stock reservations")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("products.stock.reserve.batch.size")
+                .description("Reservations coalesced into one UPDATE")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Trừ kho nếu còn đủ hàng.
+     *
+     * @return true if the quantity was reserved, false if the product does not exist or has too little stock
+     * @throws IllegalArgumentException if quantity is not positive
+     */
+    public boolean reserve(UUID productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        if (stripes == null) {
+            boolean reserved = reserveDirect(productId, quantity);
+            if (reserved) {
+                productCache.evict(productId);
+            }
+            return reserved;
+        }
+
+        Stripe stripe = stripes[Math.floorMod(productId.hashCode(), stripes.length)];
+        PendingReservation pending = new PendingReservation(productId, quantity);
+        stripe.queue.add(pending);
+
+        // ai giữ lock thì xử lý giùm cả hàng đợi; request của mình có thể đã xong khi tới lượt
+        stripe.lock.lock();
+        try {
+            if (!pending.result.isDone()) {
+                flush(stripe);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        try {
+            return pending.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Cộng lại hàng đã giữ (hủy đơn, hết hạn giữ hàng).
+     *
+     * @return false if the product does not exist
+     * @throws IllegalArgumentException if quantity is not positive
+     */
+    public boolean release(UUID productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        boolean released = productRepository.releaseStock(productId, quantity) == 1;
+        if (released) {
+            productCache.evict(productId);
+        }
+        return released;
+    }
+
+    private boolean reserveDirect(UUID productId, int quantity) {
+        statements.increment();
+        return productRepository.reserveStock(productId, quantity) == 1;
+    }
+
+    // chỉ gọi khi đang giữ stripe.lock
+    private void flush(Stripe stripe) {
+        Map<UUID, List<PendingReservation>> byProduct = new LinkedHashMap<>();
+        PendingReservation next;
+        while ((next = stripe.queue.poll()) != null) {
+            byProduct.computeIfAbsent(next.productId, id -> new ArrayList<>()).add(next);
+        }
+
+        for (Map.Entry<UUID, List<PendingReservation>> entry : byProduct.entrySet()) {
+            UUID productId = entry.getKey();
+            List<PendingReservation> group = entry.getValue();
+            batchSize.record(group.size());
+            try {
+                reserveGroup(productId, group);
+            } catch (RuntimeException e) {
+                group.forEach(pending -> pending.result.completeExceptionally(e));
+            }
+        }
+    }
+
+    private void reserveGroup(UUID productId, List<PendingReservation> group) {
+        long total = 0;
+        for (PendingReservation pending : group) {
+            total += pending.quantity;
+        }
+
+        boolean anyReserved;
+        if (group.size() > 1 && total <= Integer.MAX_VALUE && reserveDirect(productId, (int) total)) {
+            group.forEach(pending -> pending.result.complete(true));
+            anyReserved = true;
+        } else {
+            // không đủ cho cả nhóm: xét từng request theo thứ tự đến
+            anyReserved = false;
+            for (PendingReservation pending : group) {
+                boolean reserved = reserveDirect(productId, pending.quantity);
+                pending.result.complete(reserved);
+                anyReserved |= reserved;
+            }
+        }
+
+        if (anyReserved) {
+            productCache.evict(productId);
+        }
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final ConcurrentLinkedQueue<PendingReservation> queue = new ConcurrentLinkedQueue<>();
+    }
+
+    private static final class PendingReservation {
+        final UUID productId;
+        final int quantity;
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        PendingReservation(UUID productId, int quantity) {
+            this.productId = productId;
+            this.quantity = quantity;
+        }
+    }
+}
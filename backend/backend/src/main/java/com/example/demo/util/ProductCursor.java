@@ -0,0 +1,79 @@
+package com.example.demo.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+import com.example.demo.dto.ProductView;
+import com.example.demo.entity.Product;
+
+/**
+ * Opaque continuation token for keyset (seek) pagination over products.
+ *
+ * The token encodes the (created_at, id) pair of the last row of a page, so the
+ * next page is fetched with {@link #JPQL_AFTER} instead of OFFSET.
+ * Clients must treat the value as an opaque string.
+ */
+public record ProductCursor(OffsetDateTime createdAt, UUID id) {
+
+    /**
+     * JPQL predicate for rows after the cursor in (createdAt, id) order, binding
+     * {@code :createdAt} and {@code :id}. Equivalent to {@code (created_at, id) > (?, ?)};
+     * the leading {@code createdAt >=} bound lets PostgreSQL start the range scan on
+     * idx_products_created_at_id at the cursor instead of filtering from the first row.
+     */
+    public static final String JPQL_AFTER = "p.createdAt >= :createdAt "
+            + "AND (p.createdAt > :createdAt OR p.id > :id)";
+
+    private static final char SEPARATOR = '|';
+
+    public static ProductCursor of(Product product) {
+        return new ProductCursor(product.getCreatedAt(), product.getId());
+    }
+
+    public static ProductCursor of(ProductView product) {
+        return new ProductCursor(product.createdAt(), product.id());
+    }
+
+    /**
+     * Encodes this cursor as a URL-safe token.
+     *
+     * @throws IllegalStateException if the row has no created_at (see db/product-keyset.sql)
+     */
+    public String encode() {
+        if (createdAt == null || id == null) {
+            throw new IllegalStateException("Product " + id + " has no created_at, cannot build a cursor");
+        }
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token The continuation token, may be null or blank for the first page
+     * @return The decoded cursor, or null if no token was given
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static ProductCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf(SEPARATOR);
+            if (sep <= 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new ProductCursor(
+                    OffsetDateTime.parse(raw.substring(0, sep)),
+                    UUID.fromString(raw.substring(sep + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.demo.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.example.demo.dto.ProductView;
+
+/**
+ * Parses and applies the {@code fields=} parameter of the product endpoints
+ * (e.g. {@code fields=id,name,price}).
+ *
+ * Only the whitelisted names below are accepted, each mapped to its JPQL path, so the
+ * select list built from them is never user-controlled SQL.
+ */
+public final class ProductFields {
+
+    // tên field trả về cho client -> đường dẫn JPQL, getter trên ProductView
+    private static final Map<String, String> PATHS = new LinkedHashMap<>();
+    private static final Map<String, Function<ProductView, Object>> GETTERS = new LinkedHashMap<>();
+
+    static {
+        register("id", "p.id", ProductView::id);
+        register("name", "p.name", ProductView::name);
+        register("description", "p.description", ProductView::description);
+        register("price", "p.price", ProductView::price);
+        register("stockQuantity", "p.stockQuantity", ProductView::stockQuantity);
+        register("status", "p.status", ProductView::status);
+        register("createdBy", "p.createdByUser.id", ProductView::createdBy);
+        register("createdAt", "p.createdAt", ProductView::createdAt);
+        register("updatedAt", "p.updatedAt", ProductView::updatedAt);
+        register("version", "p.version", ProductView::version);
+    }
+
+    private ProductFields() {
+    }
+
+    private static void register(String name, String path, Function<ProductView, Object> getter) {
+        PATHS.put(name, path);
+        GETTERS.put(name, getter);
+    }
+
+    /**
+     * @param fields Comma-separated field names, may be null or blank
+     * @return Requested fields in request order without duplicates, or null if all fields were requested
+     * @throws IllegalArgumentException if a name is unknown
+     */
+    public static List<String> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        List<String> result = new ArrayList<>();
+        for (String raw : fields.split(",")) {
+            String name = raw.trim();
+            if (name.isEmpty() || result.contains(name)) {
+                continue;
+            }
+            if (!PATHS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            result.add(name);
+        }
+        if (result.isEmpty()) {
+            throw new IllegalArgumentException("No fields requested");
+        }
+        return result;
+    }
+
+    /**
+     * @return JPQL path of a field returned by {@link #parse}
+     */
+    public static String jpqlPath(String field) {
+        return PATHS.get(field);
+    }
+
+    /**
+     * Copies the requested fields of a view into a map that serializes as a JSON object
+     * with the fields in request order.
+     */
+    public static Map<String, Object> select(ProductView view, List<String> fields) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (String field : fields) {
+            result.put(field, GETTERS.get(field).apply(view));
+        }
+        return result;
+    }
+}
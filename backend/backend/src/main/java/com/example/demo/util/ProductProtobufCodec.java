@@ -0,0 +1,254 @@
+package com.example.demo.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.example.demo.dto.ProductView;
+import com.example.demo.dto.UserSummary;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+/**
+ * Protobuf encoding of {@link ProductView}, following src/main/resources/proto/product.proto.
+ *
+ * Written against protobuf-java's coded streams instead of generated classes, so there
+ * is no protoc step in the build and no copy into an intermediate message object: views
+ * are written straight to the output. UUIDs are 16 raw bytes and timestamps are epoch
+ * microseconds, which is where most of the saving over JSON comes from.
+ */
+public final class ProductProtobufCodec {
+
+    // field number của message Product
+    private static final int ID = 1;
+    private static final int NAME = 2;
+    private static final int DESCRIPTION = 3;
+    private static final int PRICE = 4;
+    private static final int STOCK_QUANTITY = 5;
+    private static final int STATUS = 6;
+    private static final int CREATED_BY = 7;
+    private static final int CREATED_AT = 8;
+    private static final int UPDATED_AT = 9;
+    private static final int VERSION = 10;
+    private static final int CREATED_BY_USER = 11;
+
+    // UserSummary
+    private static final int USER_ID = 1;
+    private static final int USER_USERNAME = 2;
+
+    // ProductList
+    private static final int PRODUCTS = 1;
+
+    private ProductProtobufCodec() {
+    }
+
+    /** Writes a ProductList message. */
+    public static void writeList(List<ProductView> products, CodedOutputStream out) throws IOException {
+        for (ProductView product : products) {
+            out.writeTag(PRODUCTS, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(size(product));
+            writeFields(product, out);
+        }
+    }
+
+    /** Writes a Product message. */
+    public static void write(ProductView product, CodedOutputStream out) throws IOException {
+        writeFields(product, out);
+    }
+
+    public static List<ProductView> readList(CodedInputStream in) throws IOException {
+        List<ProductView> products = new ArrayList<>();
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            if (WireFormat.getTagFieldNumber(tag) == PRODUCTS) {
+                int limit = in.pushLimit(in.readRawVarint32());
+                products.add(read(in));
+                in.popLimit(limit);
+            } else {
+                in.skipField(tag);
+            }
+        }
+        return products;
+    }
+
+    public static ProductView read(CodedInputStream in) throws IOException {
+        UUID id = null;
+        String name = null;
+        String description = null;
+        Double price = null;
+        Integer stockQuantity = null;
+        String status = null;
+        UUID createdBy = null;
+        OffsetDateTime createdAt = null;
+        OffsetDateTime updatedAt = null;
+        Long version = null;
+        UserSummary createdByUser = null;
+
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case ID -> id = uuid(in.readByteArray());
+                case NAME -> name = in.readString();
+                case DESCRIPTION -> description = in.readString();
+                case PRICE -> price = in.readDouble();
+                case STOCK_QUANTITY -> stockQuantity = in.readInt32();
+                case STATUS -> status = in.readString();
+                case CREATED_BY -> createdBy = uuid(in.readByteArray());
+                case CREATED_AT -> createdAt = timestamp(in.readInt64());
+                case UPDATED_AT -> updatedAt = timestamp(in.readInt64());
+                case VERSION -> version = in.readInt64();
+                case CREATED_BY_USER -> {
+                    int limit = in.pushLimit(in.readRawVarint32());
+                    createdByUser = readUser(in);
+                    in.popLimit(limit);
+                }
+                default -> in.skipField(tag);
+            }
+        }
+        return new ProductView(id, name, description, price, stockQuantity, status, createdBy,
+                createdAt, updatedAt, version, createdByUser);
+    }
+
+    private static void writeFields(ProductView p, CodedOutputStream out) throws IOException {
+        if (p.id() != null) {
+            out.writeByteArray(ID, bytes(p.id()));
+        }
+        if (p.name() != null) {
+            out.writeString(NAME, p.name());
+        }
+        if (p.description() != null) {
+            out.writeString(DESCRIPTION, p.description());
+        }
+        if (p.price() != null) {
+            out.writeDouble(PRICE, p.price());
+        }
+        if (p.stockQuantity() != null) {
+            out.writeInt32(STOCK_QUANTITY, p.stockQuantity());
+        }
+        if (p.status() != null) {
+            out.writeString(STATUS, p.status());
+        }
+        if (p.createdBy() != null) {
+            out.writeByteArray(CREATED_BY, bytes(p.createdBy()));
+        }
+        if (p.createdAt() != null) {
+            out.writeInt64(CREATED_AT, micros(p.createdAt()));
+        }
+        if (p.updatedAt() != null) {
+            out.writeInt64(UPDATED_AT, micros(p.updatedAt()));
+        }
+        if (p.version() != null) {
+            out.writeInt64(VERSION, p.version());
+        }
+        if (p.createdByUser() != null) {
+            out.writeTag(CREATED_BY_USER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(size(p.createdByUser()));
+            writeUser(p.createdByUser(), out);
+        }
+    }
+
+    // phải khớp từng field với writeFields (độ dài message lồng nhau ghi trước nội dung)
+    private static int size(ProductView p) {
+        int size = 0;
+        if (p.id() != null) {
+            size += CodedOutputStream.computeByteArraySize(ID, bytes(p.id()));
+        }
+        if (p.name() != null) {
+            size += CodedOutputStream.computeStringSize(NAME, p.name());
+        }
+        if (p.description() != null) {
+            size += CodedOutputStream.computeStringSize(DESCRIPTION, p.description());
+        }
+        if (p.price() != null) {
+            size += CodedOutputStream.computeDoubleSize(PRICE, p.price());
+        }
+        if (p.stockQuantity() != null) {
+            size += CodedOutputStream.computeInt32Size(STOCK_QUANTITY, p.stockQuantity());
+        }
+        if (p.status() != null) {
+            size += CodedOutputStream.computeStringSize(STATUS, p.status());
+        }
+        if (p.createdBy() != null) {
+            size += CodedOutputStream.computeByteArraySize(CREATED_BY, bytes(p.createdBy()));
+        }
+        if (p.createdAt() != null) {
+            size += CodedOutputStream.computeInt64Size(CREATED_AT, micros(p.createdAt()));
+        }
+        if (p.updatedAt() != null) {
+            size += CodedOutputStream.computeInt64Size(UPDATED_AT, micros(p.updatedAt()));
+        }
+        if (p.version() != null) {
+            size += CodedOutputStream.computeInt64Size(VERSION, p.version());
+        }
+        if (p.createdByUser() != null) {
+            int userSize = size(p.createdByUser());
+            size += CodedOutputStream.computeTagSize(CREATED_BY_USER)
+                    + CodedOutputStream.computeUInt32SizeNoTag(userSize) + userSize;
+        }
+        return size;
+    }
+
+    private static void writeUser(UserSummary user, CodedOutputStream out) throws IOException {
+        if (user.id() != null) {
+            out.writeByteArray(USER_ID, bytes(user.id()));
+        }
+        if (user.username() != null) {
+            out.writeString(USER_USERNAME, user.username());
+        }
+    }
+
+    private static int size(UserSummary user) {
+        int size = 0;
+        if (user.id() != null) {
+            size += CodedOutputStream.computeByteArraySize(USER_ID, bytes(user.id()));
+        }
+        if (user.username() != null) {
+            size += CodedOutputStream.computeStringSize(USER_USERNAME, user.username());
+        }
+        return size;
+    }
+
+    private static UserSummary readUser(CodedInputStream in) throws IOException {
+        UUID id = null;
+        String username = null;
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case USER_ID -> id = uuid(in.readByteArray());
+                case USER_USERNAME -> username = in.readString();
+                default -> in.skipField(tag);
+            }
+        }
+        return new UserSummary(id, username);
+    }
+
+    private static byte[] bytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    private static UUID uuid(byte[] bytes) throws IOException {
+        if (bytes.length != 16) {
+            throw new IOException("UUID must be 16 bytes, got " + bytes.length);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static long micros(OffsetDateTime time) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, time.toInstant());
+    }
+
+    private static OffsetDateTime timestamp(long micros) {
+        return Instant.EPOCH.plus(micros, ChronoUnit.MICROS).atOffset(ZoneOffset.UTC);
+    }
+}
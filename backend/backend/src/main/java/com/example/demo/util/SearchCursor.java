@@ -0,0 +1,56 @@
+package com.example.demo.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+import com.example.demo.dto.ProductSearchHit;
+
+/**
+ * Opaque continuation token for keyset pagination over ranked search results.
+ *
+ * The token encodes the (score, id) pair of the last hit of a page; results are ordered
+ * by score descending then id ascending, so the next page is everything after that pair.
+ * The score is the exact float computed by the database, so equality comparisons are safe.
+ */
+public record SearchCursor(float score, UUID id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static SearchCursor of(ProductSearchHit hit) {
+        return new SearchCursor(hit.score(), hit.product().id());
+    }
+
+    /**
+     * Encodes this cursor as a URL-safe token.
+     */
+    public String encode() {
+        String raw = Float.toString(score) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token The continuation token, may be null or blank for the first page
+     * @return The decoded cursor, or null if no token was given
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static SearchCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int sep = raw.lastIndexOf(SEPARATOR);
+        if (sep <= 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        float score = Float.parseFloat(raw.substring(0, sep));
+        if (!Float.isFinite(score)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new SearchCursor(score, UUID.fromString(raw.substring(sep + 1)));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.util;
+
+/**
+ * Weak ETags derived from an entity version ({@code W/"3"}).
+ *
+ * Comparison is weak (RFC 9110 section 8.8.3.2): the {@code W/} prefix is ignored on
+ * both sides, so the tags work for If-None-Match as well as If-Match. For If-Match this
+ * deliberately deviates from RFC 9110, which requires strong comparison (a weak tag would
+ * then never match); the version alone is what a conditional update needs to check.
+ */
+public final class VersionETag {
+
+    private VersionETag() {
+    }
+
+    public static String of(Long version) {
+        return "W/\"" + (version == null ? 0 : version) + "\"";
+    }
+
+    /**
+     * @param header value of If-Match / If-None-Match, may list several tags or be "*"
+     * @return true if the header is "*" or lists the tag of this version
+     */
+    public static boolean matches(String header, Long version) {
+        if (header == null || header.isBlank()) {
+            return false;
+        }
+        String expected = String.valueOf(version == null ? 0 : version);
+        for (String part : header.split(",")) {
+            String tag = part.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")
+                    && tag.substring(1, tag.length() - 1).equals(expected)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
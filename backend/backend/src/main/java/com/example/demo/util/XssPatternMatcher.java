@@ -0,0 +1,255 @@
+package com.example.demo.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Case-insensitive multi-pattern matcher (Aho-Corasick compiled to a dense DFA).
+ *
+ * The input is scanned once, one table lookup per character, without allocating.
+ * While scanning, the text is normalized the way a browser would read it:
+ * <ul>
+ *   <li>ASCII letters are folded to lower case</li>
+ *   <li>numeric ({@code &#106;}, {@code &#x6A}) and a few named ({@code &lt;}, {@code &colon;}, ...)
+ *       character references are decoded</li>
+ *   <li>tab, CR, LF and NUL are dropped (URL parsers strip them, so {@code java\tscript:} still runs)</li>
+ *   <li>other whitespace breaks a match, except before {@code =} ({@code onerror =x} is still an attribute)</li>
+ * </ul>
+ * Instances are immutable and thread-safe.
+ */
+public final class XssPatternMatcher {
+
+    private static final int ALPHABET = 128;
+
+    // mỗi dòng: tên entity, ký tự sau khi decode
+    private static final String[] NAMED_ENTITIES = {
+        "lt", "<",
+        "gt", ">",
+        "sol", "/",
+        "colon", ":",
+        "equals", "=",
+        "tab", "\t",
+        "newline", "\n",
+    };
+
+    // bảng chuyển trạng thái: transitions[state * ALPHABET + c]
+    private final int[] transitions;
+    private final boolean[] accepting;
+
+    private XssPatternMatcher(int[] transitions, boolean[] accepting) {
+        this.transitions = transitions;
+        this.accepting = accepting;
+    }
+
+    /**
+     * Compiles the patterns. Patterns are lower-cased and stripped of whitespace.
+     *
+     * @throws IllegalArgumentException if there are no patterns, or a pattern is blank or not ASCII
+     */
+    public static XssPatternMatcher compile(Collection<String> patterns) {
+        if (patterns == null || patterns.isEmpty()) {
+            throw new IllegalArgumentException("At least one pattern is required");
+        }
+
+        // 1. dựng trie
+        List<int[]> gotos = new ArrayList<>();
+        List<Boolean> terminal = new ArrayList<>();
+        gotos.add(newRow());
+        terminal.add(false);
+
+        for (String raw : patterns) {
+            String pattern = normalizePattern(raw);
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (gotos.get(state)[c] < 0) {
+                    gotos.get(state)[c] = gotos.size();
+                    gotos.add(newRow());
+                    terminal.add(false);
+                }
+                state = gotos.get(state)[c];
+            }
+            terminal.set(state, true);
+        }
+
+        // 2. BFS: tính failure link và điền đủ bảng chuyển (DFA), gộp output theo failure link
+        int stateCount = gotos.size();
+        int[] transitions = new int[stateCount * ALPHABET];
+        boolean[] accepting = new boolean[stateCount];
+        int[] fail = new int[stateCount];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+
+        for (int c = 0; c < ALPHABET; c++) {
+            int next = gotos.get(0)[c];
+            if (next < 0) {
+                transitions[c] = 0;
+            } else {
+                transitions[c] = next;
+                fail[next] = 0;
+                queue.add(next);
+            }
+        }
+        accepting[0] = terminal.get(0);
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            accepting[state] = terminal.get(state) || accepting[fail[state]];
+            for (int c = 0; c < ALPHABET; c++) {
+                int next = gotos.get(state)[c];
+                if (next < 0) {
+                    transitions[state * ALPHABET + c] = transitions[fail[state] * ALPHABET + c];
+                } else {
+                    transitions[state * ALPHABET + c] = next;
+                    fail[next] = transitions[fail[state] * ALPHABET + c];
+                    queue.add(next);
+                }
+            }
+        }
+
+        return new XssPatternMatcher(transitions, accepting);
+    }
+
+    /**
+     * @return true if any pattern occurs in the (normalized) input
+     */
+    public boolean matches(CharSequence input) {
+        if (input == null) {
+            return false;
+        }
+
+        int state = 0;
+        boolean pendingSpace = false;
+        int length = input.length();
+        int i = 0;
+
+        while (i < length) {
+            int c = input.charAt(i++);
+
+            if (c == '&') {
+                long decoded = decodeReference(input, i);
+                if (decoded >= 0) {
+                    c = (int) (decoded & 0xFFFFFFFFL);
+                    i = (int) (decoded >>> 32);
+                }
+            }
+
+            if (c == '\t' || c == '\n' || c == '\r' || c == 0) {
+                continue;
+            }
+            if (c == ' ' || c == 0xA0 || Character.isWhitespace(c)) {
+                pendingSpace = true;
+                continue;
+            }
+            if (pendingSpace) {
+                pendingSpace = false;
+                if (c != '=') {
+                    state = 0;
+                }
+            }
+            if (c >= ALPHABET) {
+                state = 0;
+                continue;
+            }
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+
+            state = transitions[state * ALPHABET + c];
+            if (accepting[state]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Decodes a character reference starting right after '&'.
+     *
+     * @return {@code (endIndex << 32) | codePoint}, or -1 if the text is not a reference
+     */
+    private static long decodeReference(CharSequence input, int start) {
+        int length = input.length();
+        if (start >= length) {
+            return -1;
+        }
+
+        if (input.charAt(start) == '#') {
+            int i = start + 1;
+            boolean hex = i < length && (input.charAt(i) == 'x' || input.charAt(i) == 'X');
+            if (hex) {
+                i++;
+            }
+            int digitsStart = i;
+            int value = 0;
+            while (i < length) {
+                int digit = Character.digit(input.charAt(i), hex ? 16 : 10);
+                if (digit < 0) {
+                    break;
+                }
+                // chặn tràn số: giá trị > U+10FFFF không phải ký tự hợp lệ
+                if (value <= Character.MAX_CODE_POINT) {
+                    value = value * (hex ? 16 : 10) + digit;
+                }
+                i++;
+            }
+            if (i == digitsStart) {
+                return -1;
+            }
+            if (i < length && input.charAt(i) == ';') {
+                i++;
+            }
+            return ((long) i << 32) | Math.min(value, Character.MAX_CODE_POINT + 1);
+        }
+
+        for (int e = 0; e < NAMED_ENTITIES.length; e += 2) {
+            String name = NAMED_ENTITIES[e];
+            if (regionMatchesIgnoreCase(input, start, name)) {
+                int i = start + name.length();
+                if (i < length && input.charAt(i) == ';') {
+                    i++;
+                }
+                return ((long) i << 32) | NAMED_ENTITIES[e + 1].charAt(0);
+            }
+        }
+        return -1;
+    }
+
+    private static boolean regionMatchesIgnoreCase(CharSequence input, int start, String name) {
+        if (start + name.length() > input.length()) {
+            return false;
+        }
+        for (int k = 0; k < name.length(); k++) {
+            char c = input.charAt(start + k);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            if (c != name.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String normalizePattern(String raw) {
+        String pattern = raw == null ? "" : raw.replaceAll("\\s+", "").toLowerCase(Locale.ROOT);
+        if (pattern.isEmpty()) {
+            throw new IllegalArgumentException("Pattern must not be blank");
+        }
+        for (int i = 0; i < pattern.length(); i++) {
+            if (pattern.charAt(i) >= ALPHABET) {
+                throw new IllegalArgumentException("Pattern must be ASCII: " + raw);
+            }
+        }
+        return pattern;
+    }
+
+    private static int[] newRow() {
+        int[] row = new int[ALPHABET];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.demo.util;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Utility class for XSS (Cross-Site Scripting) protection.
  * Provides methods to detect and sanitize potentially dangerous HTML/script content.
@@ -9,8 +12,39 @@ package com.example.demo.util;
  */
 public class XssSanitizer {
 
+    /**
+     * Patterns rejected by default. Matching is case-insensitive and sees through
+     * character references and whitespace tricks, see {@link XssPatternMatcher}.
+     */
+    public static final List<String> DEFAULT_PATTERNS = List.of(
+            "<script",
+            "</script",
+            "javascript:",
+            "vbscript:",
+            "onerror=",
+            "onload=",
+            "onclick=",
+            "onmouseover=",
+            "<iframe",
+            "<object",
+            "<embed");
+
+    // compile 1 lần; thay được lúc khởi động qua app.security.xss.patterns
+    private static volatile XssPatternMatcher matcher = XssPatternMatcher.compile(DEFAULT_PATTERNS);
+
+    /**
+     * Replaces the pattern set. An empty collection restores {@link #DEFAULT_PATTERNS}.
+     *
+     * @throws IllegalArgumentException if a pattern is blank or not ASCII
+     */
+    public static void configurePatterns(Collection<String> patterns) {
+        matcher = XssPatternMatcher.compile(
+                patterns == null || patterns.isEmpty() ? DEFAULT_PATTERNS : patterns);
+    }
+
     /**
      * Checks if a string contains potentially dangerous HTML/script patterns.
+     * Single pass over the input, no allocation.
      * 
      * @param input The string to check
      * @return true if dangerous patterns are detected, false otherwise
@@ -19,18 +53,7 @@ public class XssSanitizer {
         if (input == null || input.isEmpty()) {
             return false;
         }
-
-        String lowerInput = input.toLowerCase();
-        
-        // Check for common XSS patterns
-        return lowerInput.contains("<script") ||
-               lowerInput.contains("</script>") ||
-               lowerInput.contains("javascript:") ||
-               lowerInput.contains("onerror=") ||
-               lowerInput.contains("onload=") ||
-               lowerInput.contains("onclick=") ||
-               lowerInput.contains("<iframe") ||
-               lowerInput.contains("<img") && lowerInput.contains("onerror");
+        return matcher.matches(input);
     }
 
     /**
@@ -53,6 +76,35 @@ public class XssSanitizer {
         return new ValidationResult(true, null);
     }
 
+    /**
+     * Validates product description for XSS protection.
+     * The description is optional, so null or empty is valid.
+     * 
+     * @param description The product description to validate
+     * @return Validation result with error message if dangerous content is found
+     */
+    public static ValidationResult validateProductDescription(String description) {
+        if (containsDangerousContent(description)) {
+            return new ValidationResult(false, 
+                "Product description contains potentially dangerous content. HTML and script tags are not allowed.");
+        }
+
+        return new ValidationResult(true, null);
+    }
+
+    /**
+     * Validates the user-supplied text fields of a product (name, then description).
+     * 
+     * @return the first failed validation, or a valid result
+     */
+    public static ValidationResult validateProduct(String name, String description) {
+        ValidationResult nameValidation = validateProductName(name);
+        if (!nameValidation.isValid()) {
+            return nameValidation;
+        }
+        return validateProductDescription(description);
+    }
+
     /**
      * Simple validation result class
      */
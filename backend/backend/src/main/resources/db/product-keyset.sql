@@ -0,0 +1,10 @@
+-- Keyset pagination (GET /api/products): created_at là khóa sắp xếp/seek nên không được NULL.
+-- Dòng thêm ngoài Hibernate (SQL console, Supabase UI) trước đây có thể để NULL: khi đó cursor
+-- không encode được và dòng đó (NULLS LAST) không bao giờ tới được bằng seek.
+-- Idempotent: chạy lại mỗi lần khởi động là an toàn.
+
+UPDATE products SET created_at = coalesce(updated_at, now()) WHERE created_at IS NULL;
+
+-- INSERT không ghi created_at (ngoài Hibernate) vẫn có giá trị
+ALTER TABLE products ALTER COLUMN created_at SET DEFAULT now();
+ALTER TABLE products ALTER COLUMN created_at SET NOT NULL;
@@ -0,0 +1,25 @@
+-- Product search (GET /api/products/search): full-text + trigram indexes.
+-- Chạy sau khi Hibernate tạo/cập nhật schema (spring.jpa.defer-datasource-initialization=true).
+-- Mọi câu lệnh đều idempotent nên chạy lại mỗi lần khởi động là an toàn.
+-- Lần chạy đầu trên bảng lớn sẽ ghi lại toàn bộ bảng (cột generated) và build index: nên chạy ngoài giờ cao điểm.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- 'simple': không stemming, hợp với tên sản phẩm và tiếng Việt; tên (A) nặng hơn mô tả (B)
+ALTER TABLE products ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_products_search_vector ON products USING gin (search_vector);
+
+-- gõ sai chính tả (lower(name) % ?) và LIKE '%...%'
+CREATE INDEX IF NOT EXISTS idx_products_name_trgm ON products USING gin (lower(name) gin_trgm_ops);
+
+-- tìm theo tiền tố (lower(name) LIKE 'abc%'), kể cả khi chỉ gõ 1-2 ký tự
+CREATE INDEX IF NOT EXISTS idx_products_name_prefix ON products (lower(name) text_pattern_ops);
+
+-- lọc theo trạng thái + khoảng giá
+CREATE INDEX IF NOT EXISTS idx_products_status_price ON products (status, price);
+CREATE INDEX IF NOT EXISTS idx_products_price ON products (price);
@@ -0,0 +1,110 @@
+package com.example.demo.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class AdmissionControlledDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("TC1: Hết permit thì chờ rồi báo timeout, không mượn thêm connection")
+    void testTimeoutWhenNoPermit() throws Exception {
+        when(target.getConnection()).thenReturn(mock(Connection.class));
+        AdmissionControlledDataSource dataSource = new AdmissionControlledDataSource(target, 1, 50, meterRegistry);
+
+        Connection first = dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        verify(target, times(1)).getConnection();
+        assertEquals(1.0, meterRegistry.get("db.admission.timeouts").counter().count());
+        first.close();
+    }
+
+    @Test
+    @DisplayName("TC2: Close connection thì trả permit đúng 1 lần, dù close nhiều lần")
+    void testCloseReleasesOnce() throws Exception {
+        Connection physical = mock(Connection.class);
+        when(target.getConnection()).thenReturn(physical);
+        AdmissionControlledDataSource dataSource = new AdmissionControlledDataSource(target, 2, 50, meterRegistry);
+
+        Connection connection = dataSource.getConnection();
+        assertEquals(1, dataSource.availablePermits());
+
+        connection.close();
+        connection.close();
+
+        assertEquals(2, dataSource.availablePermits());
+        verify(physical, times(2)).close();
+    }
+
+    @Test
+    @DisplayName("TC3: Người đang chờ được vào ngay khi có connection trả về")
+    void testWaiterAdmittedOnRelease() throws Exception {
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        AdmissionControlledDataSource dataSource = new AdmissionControlledDataSource(target, 1, 5000, meterRegistry);
+        Connection held = dataSource.getConnection();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Connection> waiter = executor.submit(() -> dataSource.getConnection());
+            while (meterRegistry.get("db.admission.waiting").gauge().value() < 1) {
+                Thread.sleep(5);
+            }
+            held.close();
+
+            Connection admitted = waiter.get(5, TimeUnit.SECONDS);
+            assertEquals(0, dataSource.availablePermits());
+            admitted.close();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("TC4: Pool báo lỗi thì permit được trả lại")
+    void testPermitReleasedOnFailure() throws Exception {
+        SQLException failure = new SQLException("pool exhausted");
+        when(target.getConnection()).thenThrow(failure);
+        AdmissionControlledDataSource dataSource = new AdmissionControlledDataSource(target, 1, 50, meterRegistry);
+
+        SQLException thrown = assertThrows(SQLException.class, dataSource::getConnection);
+
+        assertSame(failure, thrown);
+        assertEquals(1, dataSource.availablePermits());
+        assertTrue(meterRegistry.get("db.admission.wait").timer().count() > 0);
+    }
+}
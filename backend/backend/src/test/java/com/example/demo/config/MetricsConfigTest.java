@@ -0,0 +1,33 @@
+package com.example.demo.config;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+
+import com.example.demo.dto.LoginResponse;
+import com.example.demo.dto.ProductView;
+import com.example.demo.dto.ProductViewList;
+
+class MetricsConfigTest {
+
+    @Test
+    @DisplayName("TC1: Kiểu khai báo cụ thể được dùng làm tag")
+    void testDeclaredType() {
+        assertEquals("LoginResponse", MetricsConfig.typeTag(new Object(), LoginResponse.class));
+        assertEquals("List", MetricsConfig.typeTag(List.of(),
+                ResolvableType.forClassWithGenerics(List.class, ProductView.class).getType()));
+    }
+
+    @Test
+    @DisplayName("TC2: ResponseEntity<?> (kiểu Object) thì dùng kiểu thực tế của body")
+    void testObjectFallsBackToRuntimeType() {
+        assertEquals("ProductViewList", MetricsConfig.typeTag(new ProductViewList(List.of()), Object.class));
+        assertEquals("ProductViewList", MetricsConfig.typeTag(new ProductViewList(List.of()), null));
+        assertEquals("List", MetricsConfig.typeTag(List.of(1, 2, 3), Object.class));
+        assertEquals("Map", MetricsConfig.typeTag(new LinkedHashMap<>(), Object.class));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.demo.config;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.example.demo.dto.ProductView;
+import com.example.demo.dto.ProductViewList;
+import com.example.demo.dto.UserSummary;
+
+class ProductProtobufHttpMessageConverterTest {
+
+    private static final Type OBJECT = Object.class;
+
+    private final ProductProtobufHttpMessageConverter converter = new ProductProtobufHttpMessageConverter();
+
+    @Test
+    @DisplayName("TC1: Nhận ProductView, ProductViewList và List<ProductView> khai báo tường minh")
+    void testCanWriteProductTypes() {
+        assertTrue(converter.canWrite(OBJECT, ProductView.class, ProductProtobufHttpMessageConverter.PROTOBUF));
+        assertTrue(converter.canWrite(OBJECT, ProductViewList.class, ProductProtobufHttpMessageConverter.PROTOBUF));
+        assertTrue(converter.canWrite(ResolvableType.forClassWithGenerics(List.class, ProductView.class).getType(),
+                ArrayList.class, null));
+    }
+
+    @Test
+    @DisplayName("TC2: Không nhận list khác (user, gợi ý, fields=) để Spring trả 406 thay vì 500")
+    void testCannotWriteOtherLists() {
+        assertFalse(converter.canWrite(OBJECT, ArrayList.class, ProductProtobufHttpMessageConverter.PROTOBUF));
+        assertFalse(converter.canWrite(ResolvableType.forClassWithGenerics(List.class, UserSummary.class).getType(),
+                ArrayList.class, null));
+        assertFalse(converter.canWrite(OBJECT, Map.class, null));
+        assertFalse(converter.canRead(OBJECT, null, ProductProtobufHttpMessageConverter.PROTOBUF));
+    }
+
+    @Test
+    @DisplayName("TC3: ProductViewList ghi ra giống hệt List<ProductView>")
+    void testWriteListForms() throws Exception {
+        List<ProductView> page = List.of(new ProductView(UUID.randomUUID(), "Laptop", null, 1.0, 1, "ACTIVE",
+                null, null, null, 1L));
+
+        MockHttpOutputMessage wrapped = new MockHttpOutputMessage();
+        converter.write(new ProductViewList(page), OBJECT, ProductProtobufHttpMessageConverter.PROTOBUF, wrapped);
+        MockHttpOutputMessage declared = new MockHttpOutputMessage();
+        converter.write(page, ResolvableType.forClassWithGenerics(List.class, ProductView.class).getType(),
+                ProductProtobufHttpMessageConverter.PROTOBUF, declared);
+
+        assertArrayEquals(declared.getBodyAsBytes(), wrapped.getBodyAsBytes());
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.example.demo.security.PasswordHashingBusyException;
+
+class ApiExceptionHandlerTest {
+
+    @Test
+    @DisplayName("TC1: Hashing quá tải - trả 503 kèm Retry-After")
+    void testHashingBusy() {
+        ResponseEntity<String> response = new ApiExceptionHandler()
+                .handleHashingBusy(new PasswordHashingBusyException("queue full", 3));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("3", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+}
@@ -6,10 +6,12 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -24,9 +26,16 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.example.demo.dto.LoginRequest;
 import com.example.demo.dto.LoginResponse;
+import com.example.demo.dto.RefreshRequest;
+import com.example.demo.dto.RegisterRequest;
+import com.example.demo.dto.UsernameAvailability;
 import com.example.demo.entity.User; // User entity from main source
 import com.example.demo.repository.UserRepository;
+import com.example.demo.security.UsernameBloomFilter;
+import com.example.demo.security.VerifiedCredentialCache;
 import com.example.demo.service.JwtService;
+import com.example.demo.service.PasswordRehashService;
+import com.example.demo.service.RefreshTokenService;
 
 @ExtendWith(MockitoExtension.class)
 class AuthControllerTest {
@@ -40,6 +49,18 @@ class AuthControllerTest {
     @Mock
     private JwtService jwtService;
 
+    @Mock
+    private PasswordRehashService passwordRehashService;
+
+    @Mock
+    private VerifiedCredentialCache credentialCache;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private UsernameBloomFilter usernameFilter;
+
     @InjectMocks
     private AuthController authController;
 
@@ -73,6 +94,9 @@ class AuthControllerTest {
         when(jwtService.generateToken(anyString(), anyString()))
                 .thenReturn("mock.jwt.token");
 
+        when(refreshTokenService.issue(mockUser))
+                .thenReturn("mock-refresh-token");
+
        
         ResponseEntity<?> responseEntity = authController.login(loginRequest);
 
@@ -82,11 +106,31 @@ class AuthControllerTest {
         assertNotNull(responseBody);
         assertEquals("mock.jwt.token", responseBody.getToken());
         assertEquals("testuser", responseBody.getUsername());
+        assertEquals("mock-refresh-token", responseBody.getRefreshToken());
 
       
         verify(userRepository, times(1)).findByUsername("testuser");
         verify(passwordEncoder, times(1)).matches("Password123", "hashedPassword123");
         verify(jwtService, times(1)).generateToken(mockUser.getId().toString(), "testuser");
+        verify(passwordRehashService, times(1)).rehashIfNeeded(mockUser, "Password123");
+        verify(credentialCache, times(1)).remember("testuser", "Password123", "hashedPassword123");
+    }
+
+    @Test
+    @DisplayName("Mock: Đăng nhập lặp lại - credential cache hit thì bỏ qua bcrypt")
+    void testLoginSuccess_CredentialCacheHit() {
+        when(userRepository.findByUsername("testuser"))
+                .thenReturn(Optional.of(mockUser));
+        when(credentialCache.isVerified("testuser", "Password123", "hashedPassword123"))
+                .thenReturn(true);
+        when(jwtService.generateToken(anyString(), anyString()))
+                .thenReturn("mock.jwt.token");
+
+        ResponseEntity<?> responseEntity = authController.login(loginRequest);
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        verify(passwordEncoder, never()).matches(anyString(), anyString());
+        verify(credentialCache, never()).remember(anyString(), anyString(), anyString());
     }
 
     @Test
@@ -131,6 +175,7 @@ class AuthControllerTest {
 
 
         verify(jwtService, never()).generateToken(anyString(), anyString());
+        verify(passwordRehashService, never()).rehashIfNeeded(any(), anyString());
     }
 
     @Test
@@ -183,4 +228,100 @@ class AuthControllerTest {
         verify(passwordEncoder, never()).matches(anyString(), anyString());
         verify(jwtService, never()).generateToken(anyString(), anyString());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Mock: Refresh token hợp lệ - cấp token mới, không gọi bcrypt")
+    void testRefreshSuccess() {
+        RefreshRequest refreshRequest = new RefreshRequest();
+        refreshRequest.setRefreshToken("old-refresh-token");
+
+        when(refreshTokenService.rotate("old-refresh-token"))
+                .thenReturn(Optional.of(new RefreshTokenService.Rotation(mockUser, "new-refresh-token")));
+        when(jwtService.generateToken(mockUser.getId().toString(), "testuser"))
+                .thenReturn("new.jwt.token");
+
+        ResponseEntity<?> responseEntity = authController.refresh(refreshRequest);
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        LoginResponse responseBody = (LoginResponse) responseEntity.getBody();
+        assertNotNull(responseBody);
+        assertEquals("new.jwt.token", responseBody.getToken());
+        assertEquals("new-refresh-token", responseBody.getRefreshToken());
+        verify(passwordEncoder, never()).matches(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Mock: Refresh token sai / đã dùng - trả 401")
+    void testRefreshFail_InvalidToken() {
+        RefreshRequest refreshRequest = new RefreshRequest();
+        refreshRequest.setRefreshToken("used-refresh-token");
+
+        when(refreshTokenService.rotate("used-refresh-token"))
+                .thenReturn(Optional.empty());
+
+        ResponseEntity<?> responseEntity = authController.refresh(refreshRequest);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, responseEntity.getStatusCode());
+        verify(jwtService, never()).generateToken(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Mock: Đăng ký thành công - 1 câu INSERT, username vào Bloom filter")
+    void testRegisterSuccess() {
+        RegisterRequest registerRequest = new RegisterRequest();
+        registerRequest.setUsername("newuser");
+        registerRequest.setPassword("Password123");
+
+        when(passwordEncoder.encode("Password123")).thenReturn("hashedPassword123");
+        when(userRepository.insertIfUsernameFree(any(UUID.class), any(String.class), any(String.class)))
+                .thenReturn(Optional.of(UUID.randomUUID()));
+
+        ResponseEntity<?> responseEntity = authController.register(registerRequest);
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        verify(userRepository, times(1)).insertIfUsernameFree(any(UUID.class), any(String.class), any(String.class));
+        verify(userRepository, never()).findByUsername(anyString());
+        verify(usernameFilter, times(1)).put("newuser");
+    }
+
+    @Test
+    @DisplayName("Mock: Đăng ký trùng username - trả 409")
+    void testRegisterFail_UsernameTaken() {
+        RegisterRequest registerRequest = new RegisterRequest();
+        registerRequest.setUsername("testuser");
+        registerRequest.setPassword("Password123");
+
+        when(passwordEncoder.encode("Password123")).thenReturn("hashedPassword123");
+        when(userRepository.insertIfUsernameFree(any(UUID.class), any(String.class), any(String.class)))
+                .thenReturn(Optional.empty());
+
+        ResponseEntity<?> responseEntity = authController.register(registerRequest);
+
+        assertEquals(HttpStatus.CONFLICT, responseEntity.getStatusCode());
+        verify(usernameFilter, never()).put(anyString());
+    }
+
+    @Test
+    @DisplayName("Mock: Kiểm tra username - Bloom filter nói chắc chắn trống thì không hỏi DB")
+    void testUsernameAvailable_FilteredWithoutDatabase() {
+        when(usernameFilter.mightContain("freeuser")).thenReturn(false);
+
+        ResponseEntity<UsernameAvailability> responseEntity = authController.usernameAvailable("freeuser");
+
+        assertNotNull(responseEntity.getBody());
+        assertTrue(responseEntity.getBody().available());
+        verify(userRepository, never()).existsByUsername(anyString());
+    }
+
+    @Test
+    @DisplayName("Mock: Kiểm tra username - filter có thể trùng thì hỏi DB")
+    void testUsernameAvailable_MaybeTakenChecksDatabase() {
+        when(usernameFilter.mightContain("testuser")).thenReturn(true);
+        when(userRepository.existsByUsername("testuser")).thenReturn(true);
+
+        ResponseEntity<UsernameAvailability> responseEntity = authController.usernameAvailable("testuser");
+
+        assertNotNull(responseEntity.getBody());
+        assertEquals(false, responseEntity.getBody().available());
+    }
+}
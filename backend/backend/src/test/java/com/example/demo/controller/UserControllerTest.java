@@ -0,0 +1,108 @@
+package com.example.demo.controller;
+
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.security.UsernameBloomFilter;
+import com.example.demo.security.VerifiedCredentialCache;
+import com.example.demo.service.RefreshTokenService;
+
+@ExtendWith(MockitoExtension.class)
+class UserControllerTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private VerifiedCredentialCache credentialCache;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private UsernameBloomFilter usernameFilter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private UserController userController;
+
+    private static DataIntegrityViolationException violation(String sqlState) {
+        return new DataIntegrityViolationException("constraint", new SQLException("violation", sqlState));
+    }
+
+    @Test
+    @DisplayName("TC1: Trùng username (23505) trả 409 Username is already taken")
+    void testUniqueViolation() {
+        ResponseEntity<String> response = userController.handleConflict(violation("23505"));
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("Username is already taken", response.getBody());
+    }
+
+    @Test
+    @DisplayName("TC2: Vi phạm khóa ngoại không bị báo là trùng username, lỗi khác giữ nguyên")
+    void testOtherViolations() {
+        ResponseEntity<String> response = userController.handleConflict(violation("23503"));
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("User still has products and cannot be deleted", response.getBody());
+
+        DataIntegrityViolationException notNull = violation("23502");
+        assertSame(notNull, assertThrows(DataIntegrityViolationException.class,
+                () -> userController.handleConflict(notNull)));
+    }
+
+    @Test
+    @DisplayName("TC3: Xóa user thất bại thì rollback, không thu hồi phiên")
+    void testDeleteFailureRollsBack() {
+        UUID id = UUID.randomUUID();
+        User user = new User(id, "lam123", "hash");
+        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+        doThrow(violation("23503")).when(userRepository).flush();
+
+        assertThrows(DataIntegrityViolationException.class, () -> userController.delete(id));
+
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verify(credentialCache, never()).invalidate("lam123");
+    }
+
+    @Test
+    @DisplayName("TC4: Xóa user thành công thì thu hồi phiên trong cùng transaction")
+    void testDeleteSuccess() {
+        UUID id = UUID.randomUUID();
+        User user = new User(id, "lam123", "hash");
+        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+
+        ResponseEntity<Void> response = userController.delete(id);
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        verify(refreshTokenService).revokeAll(id);
+        verify(userRepository).delete(user);
+        verify(transactionManager).commit(any());
+        verify(credentialCache).invalidate("lam123");
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+class AdaptiveBCryptPasswordEncoderTest {
+
+    @Test
+    @DisplayName("TC1: Hash cùng cost thì không cần rehash")
+    void testSameCost_NoUpgrade() {
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5);
+
+        assertFalse(encoder.upgradeEncoding(encoder.encode("Password123")));
+    }
+
+    @Test
+    @DisplayName("TC2: Hash cost thấp hơn cần rehash, cost cao hơn thì giữ nguyên (không hạ cost)")
+    void testDifferentCost_UpgradeOnlyWeaker() {
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5);
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("Password123")));
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("Password123")));
+    }
+
+    @Test
+    @DisplayName("TC3: Calibrate luôn nằm trong khoảng min..max")
+    void testCalibrated_WithinBounds() {
+        AdaptiveBCryptPasswordEncoder encoder = AdaptiveBCryptPasswordEncoder.calibrated(1, 4, 6);
+
+        assertTrue(encoder.getStrength() >= 4 && encoder.getStrength() <= 6);
+        assertTrue(encoder.matches("Password123", encoder.encode("Password123")));
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.demo.security;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("TC1: Hash và verify chạy trên executor riêng")
+    void testEncodeAndMatches() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 8, 5000, 1, meterRegistry);
+
+        String hash = encoder.encode("Password123");
+
+        assertTrue(encoder.matches("Password123", hash));
+        assertFalse(encoder.matches("wrongPassword", hash));
+        assertEquals(2, meterRegistry.get("auth.password.hash").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    @DisplayName("TC2: Hàng đợi đầy thì từ chối ngay với Retry-After")
+    void testRejectWhenQueueFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slowDelegate = new BlockingEncoder(started, release);
+        encoder = new BoundedPasswordEncoder(slowDelegate, 1, 1, 5000, 3, meterRegistry);
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            // 1 request chiếm thread, 1 request nằm trong hàng đợi
+            Future<Boolean> running = callers.submit(() -> encoder.matches("a", "x"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<Boolean> queued = callers.submit(() -> encoder.matches("b", "x"));
+            while (meterRegistry.get("auth.password.queue.depth").gauge().value() < 1) {
+                Thread.sleep(5);
+            }
+
+            PasswordHashingBusyException ex = assertThrows(PasswordHashingBusyException.class,
+                    () -> encoder.matches("c", "x"));
+            assertEquals(3, ex.getRetryAfterSeconds());
+            assertEquals(1.0, meterRegistry.get("auth.password.rejected").counter().count());
+
+            release.countDown();
+            assertTrue(running.get(5, TimeUnit.SECONDS));
+            assertTrue(queued.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+    }
+
+    private static class BlockingEncoder implements PasswordEncoder {
+        private final CountDownLatch started;
+        private final CountDownLatch release;
+
+        BlockingEncoder(CountDownLatch started, CountDownLatch release) {
+            this.started = started;
+            this.release = release;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return true;
+        }
+    }
+}
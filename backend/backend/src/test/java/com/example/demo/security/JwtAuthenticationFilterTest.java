@@ -0,0 +1,103 @@
+package com.example.demo.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.example.demo.service.JwtService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+
+class JwtAuthenticationFilterTest {
+
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = spy(new JwtService(new JwtKeyRing("", "", event -> { }), new SimpleMeterRegistry(), 900));
+        filter = new JwtAuthenticationFilter(jwtService, new SimpleMeterRegistry(), false, 100);
+    }
+
+    @Test
+    @DisplayName("TC1: Token hợp lệ - principal được gắn vào request")
+    void testValidToken() throws Exception {
+        String token = jwtService.generateToken("user-1", "lam123");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        JwtPrincipal principal = (JwtPrincipal) request.getAttribute(JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE);
+        assertNotNull(principal);
+        assertEquals("user-1", principal.userId());
+        assertEquals("lam123", ((HttpServletRequest) chain.getRequest()).getUserPrincipal().getName());
+    }
+
+    @Test
+    @DisplayName("TC2: Token lặp lại lấy từ cache, chỉ verify chữ ký 1 lần")
+    void testRepeatedTokenUsesCache() {
+        String token = jwtService.generateToken("user-1", "lam123");
+
+        assertNotNull(filter.authenticate(token));
+        assertNotNull(filter.authenticate(token));
+
+        verify(jwtService, times(1)).parseToken(anyString());
+    }
+
+    @Test
+    @DisplayName("TC3: Token bị sửa - anonymous khi chưa enforce, 401 khi enforce (trừ /api/auth)")
+    void testTamperedToken() throws Exception {
+        String token = jwtService.generateToken("user-1", "lam123") + "x";
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        assertEquals(200, response.getStatus());
+        assertNull(request.getAttribute(JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE));
+        assertNull(((HttpServletRequest) chain.getRequest()).getUserPrincipal());
+
+        JwtAuthenticationFilter enforcing = new JwtAuthenticationFilter(jwtService, new SimpleMeterRegistry(), true, 100);
+        MockHttpServletRequest productsRequest = new MockHttpServletRequest("GET", "/api/products");
+        productsRequest.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse productsResponse = new MockHttpServletResponse();
+        MockFilterChain productsChain = new MockFilterChain();
+        enforcing.doFilter(productsRequest, productsResponse, productsChain);
+        assertEquals(401, productsResponse.getStatus());
+        assertNull(productsChain.getRequest());
+
+        MockHttpServletRequest loginRequest = new MockHttpServletRequest("POST", "/api/auth/login");
+        loginRequest.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse loginResponse = new MockHttpServletResponse();
+        enforcing.doFilter(loginRequest, loginResponse, new MockFilterChain());
+        assertEquals(200, loginResponse.getStatus());
+    }
+
+    @Test
+    @DisplayName("TC4: Không có token và enforce=true thì trả 401, trừ /api/auth")
+    void testEnforce() throws Exception {
+        JwtAuthenticationFilter enforcing = new JwtAuthenticationFilter(jwtService, new SimpleMeterRegistry(), true, 100);
+
+        MockHttpServletResponse productsResponse = new MockHttpServletResponse();
+        enforcing.doFilter(new MockHttpServletRequest("GET", "/api/products"), productsResponse, new MockFilterChain());
+        assertEquals(401, productsResponse.getStatus());
+
+        MockHttpServletResponse loginResponse = new MockHttpServletResponse();
+        enforcing.doFilter(new MockHttpServletRequest("POST", "/api/auth/login"), loginResponse, new MockFilterChain());
+        assertEquals(200, loginResponse.getStatus());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.demo.security;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.demo.service.JwtService;
+
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JwtKeyRingTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static String newSecret() {
+        byte[] bytes = new byte[32];
+        new SecureRandom().nextBytes(bytes);
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    @Test
+    @DisplayName("TC1: Hai node dùng chung secret thì verify được token của nhau")
+    void testSharedSecretAcrossNodes() {
+        String secret = newSecret();
+        JwtService nodeA = new JwtService(new JwtKeyRing("", secret, event -> { }), new SimpleMeterRegistry(), 900);
+        JwtService nodeB = new JwtService(new JwtKeyRing("", secret, event -> { }), new SimpleMeterRegistry(), 900);
+
+        String token = nodeA.generateToken("user-1", "lam123");
+
+        assertEquals("lam123", nodeB.parseToken(token).username());
+    }
+
+    @Test
+    @DisplayName("TC2: Xoay key - token cũ vẫn verify được cho tới khi gỡ key cũ")
+    void testRotation() throws IOException {
+        String oldKey = newSecret();
+        String newKey = newSecret();
+        Path file = tempDir.resolve("jwt-keys.properties");
+        Files.writeString(file, "active=k1\nkey.k1=" + oldKey + "\n");
+
+        List<Object> events = new ArrayList<>();
+        JwtKeyRing keyRing = new JwtKeyRing(file.toString(), "", events::add);
+        JwtService jwtService = new JwtService(keyRing, new SimpleMeterRegistry(), 900);
+        String oldToken = jwtService.generateToken("user-1", "lam123");
+
+        // thêm key mới và chuyển active
+        Files.writeString(file, "active=k2\nkey.k1=" + oldKey + "\nkey.k2=" + newKey + "\n");
+        keyRing.reload();
+        assertEquals("k2", keyRing.activeKid());
+        assertEquals("lam123", jwtService.parseToken(oldToken).username());
+        assertEquals(1, events.size());
+
+        // gỡ key cũ
+        Files.writeString(file, "active=k2\nkey.k2=" + newKey + "\n");
+        keyRing.reload();
+        assertThrows(JwtException.class, () -> jwtService.parseToken(oldToken));
+    }
+
+    @Test
+    @DisplayName("TC3: File hỏng thì giữ nguyên key cũ")
+    void testBrokenFileKeepsKeys() throws IOException {
+        Path file = tempDir.resolve("jwt-keys.properties");
+        Files.writeString(file, "active=k1\nkey.k1=" + newSecret() + "\n");
+        JwtKeyRing keyRing = new JwtKeyRing(file.toString(), "", event -> { });
+
+        Files.writeString(file, "active=missing\n");
+        keyRing.reload();
+
+        assertEquals("k1", keyRing.activeKid());
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.demo.security;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.demo.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UsernameBloomFilterTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private UsernameBloomFilter newFilter(long expectedUsers, double fpp) {
+        return new UsernameBloomFilter(userRepository, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), true, expectedUsers, fpp);
+    }
+
+    @Test
+    @DisplayName("TC1: Chưa dựng xong thì luôn phải hỏi DB")
+    void testNotReady() {
+        UsernameBloomFilter filter = newFilter(1000, 0.01);
+
+        assertTrue(filter.mightContain("anyone"));
+        assertFalse(filter.isReady());
+    }
+
+    @Test
+    @DisplayName("TC2: Username đã có (lúc dựng hoặc vừa đăng ký) không bao giờ bị báo là trống")
+    void testNoFalseNegatives() {
+        when(userRepository.streamUsernames()).thenReturn(IntStream.range(0, 1000).mapToObj(i -> "user" + i));
+        UsernameBloomFilter filter = newFilter(2000, 0.01);
+
+        filter.build();
+        filter.put("người-dùng-mới");
+
+        assertTrue(filter.isReady());
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain("user" + i));
+        }
+        assertTrue(filter.mightContain("người-dùng-mới"));
+    }
+
+    @Test
+    @DisplayName("TC3: Tỉ lệ dương tính giả gần fpp cấu hình")
+    void testFalsePositiveRate() {
+        when(userRepository.streamUsernames()).thenReturn(IntStream.range(0, 10_000).mapToObj(i -> "user" + i));
+        UsernameBloomFilter filter = newFilter(10_000, 0.01);
+        filter.build();
+
+        long falsePositives = IntStream.range(0, 10_000).filter(i -> filter.mightContain("free" + i)).count();
+
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    @DisplayName("TC4: Dựng lỗi thì vẫn chưa sẵn sàng (fallback về DB)")
+    void testBuildFailure() {
+        when(userRepository.streamUsernames()).thenReturn(Stream.of("a").<String>map(name -> {
+            throw new IllegalStateException("connection lost");
+        }));
+        UsernameBloomFilter filter = newFilter(1000, 0.01);
+
+        filter.build();
+
+        assertFalse(filter.isReady());
+        assertTrue(filter.mightContain("a"));
+    }
+}
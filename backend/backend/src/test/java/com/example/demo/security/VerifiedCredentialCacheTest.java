@@ -0,0 +1,54 @@
+package com.example.demo.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class VerifiedCredentialCacheTest {
+
+    private VerifiedCredentialCache newCache(boolean enabled) {
+        return new VerifiedCredentialCache(new SimpleMeterRegistry(), enabled, 60, 100);
+    }
+
+    @Test
+    @DisplayName("TC1: Đúng mật khẩu và đúng hash thì cache hit")
+    void testHit() {
+        VerifiedCredentialCache cache = newCache(true);
+        cache.remember("lam123", "Password123", "hash-v1");
+
+        assertTrue(cache.isVerified("lam123", "Password123", "hash-v1"));
+    }
+
+    @Test
+    @DisplayName("TC2: Sai mật khẩu hoặc hash đã đổi thì miss")
+    void testMiss() {
+        VerifiedCredentialCache cache = newCache(true);
+        cache.remember("lam123", "Password123", "hash-v1");
+
+        assertFalse(cache.isVerified("lam123", "wrongPassword", "hash-v1"));
+        assertFalse(cache.isVerified("lam123", "Password123", "hash-v2"));
+    }
+
+    @Test
+    @DisplayName("TC3: Invalidate xóa entry của user")
+    void testInvalidate() {
+        VerifiedCredentialCache cache = newCache(true);
+        cache.remember("lam123", "Password123", "hash-v1");
+
+        cache.invalidate("lam123");
+
+        assertFalse(cache.isVerified("lam123", "Password123", "hash-v1"));
+    }
+
+    @Test
+    @DisplayName("TC4: Mặc định tắt thì không bao giờ hit")
+    void testDisabled() {
+        VerifiedCredentialCache cache = newCache(false);
+        cache.remember("lam123", "Password123", "hash-v1");
+
+        assertFalse(cache.isVerified("lam123", "Password123", "hash-v1"));
+    }
+}
@@ -23,6 +23,7 @@ import com.example.demo.dto.LoginRequest;
 import com.example.demo.dto.LoginResponse;
 import com.example.demo.entity.User;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.security.VerifiedCredentialCache;
 
 @ExtendWith(MockitoExtension.class)
 class AuthServiceTest {
@@ -36,6 +37,15 @@ class AuthServiceTest {
     @Mock
     private JwtService jwtService;
 
+    @Mock
+    private PasswordRehashService passwordRehashService;
+
+    @Mock
+    private VerifiedCredentialCache credentialCache;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     @InjectMocks
     private AuthService authService;
 
@@ -67,6 +77,7 @@ class AuthServiceTest {
         assertNotNull(response);
         assertEquals("mock.jwt.token", response.getToken());
         verify(jwtService, times(1)).generateToken(anyString(), anyString());
+        verify(passwordRehashService, times(1)).rehashIfNeeded(mockUser, "Password123");
     }
 
     @Test
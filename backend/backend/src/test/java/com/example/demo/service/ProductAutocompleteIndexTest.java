@@ -0,0 +1,127 @@
+package com.example.demo.service;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.dto.ProductSuggestion;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ProductAutocompleteIndexTest {
+
+    private ProductAutocompleteIndex newIndex(int maxProducts) {
+        return new ProductAutocompleteIndex(null, null, new SimpleMeterRegistry(), true, maxProducts);
+    }
+
+    private static List<UUID> ids(List<ProductSuggestion> suggestions) {
+        return suggestions.stream().map(ProductSuggestion::id).toList();
+    }
+
+    @Test
+    @DisplayName("TC1: Gõ tiền tố thì gợi ý sản phẩm, token ngắn hơn đứng trước")
+    void testPrefixSuggest() {
+        ProductAutocompleteIndex index = newIndex(100);
+        UUID laptop = UUID.randomUUID();
+        UUID laptopStand = UUID.randomUUID();
+        UUID mouse = UUID.randomUUID();
+        index.put(laptopStand, "Laptopstand nhôm");
+        index.put(laptop, "Laptop Dell XPS");
+        index.put(mouse, "Chuột Logitech");
+
+        assertEquals(List.of(laptop, laptopStand), ids(index.suggest("lap", 10)));
+        assertEquals(List.of(laptop), ids(index.suggest("lap", 1)));
+        assertTrue(index.suggest("keyboard", 10).isEmpty());
+        assertTrue(index.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("TC2: Nhiều từ - các từ trước phải khớp nguyên, từ cuối là tiền tố")
+    void testMultiTokenSuggest() {
+        ProductAutocompleteIndex index = newIndex(100);
+        UUID xps = UUID.randomUUID();
+        UUID inspiron = UUID.randomUUID();
+        index.put(xps, "Laptop Dell XPS 13");
+        index.put(inspiron, "Laptop Dell Inspiron");
+
+        assertEquals(List.of(xps), ids(index.suggest("dell xp", 10)));
+        assertEquals(2, index.suggest("laptop dell", 10).size());
+        assertTrue(index.suggest("del xps", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("TC3: Không phân biệt hoa thường và dấu tiếng Việt")
+    void testDiacritics() {
+        ProductAutocompleteIndex index = newIndex(100);
+        UUID phone = UUID.randomUUID();
+        index.put(phone, "Điện thoại Samsung");
+
+        assertEquals(List.of(phone), ids(index.suggest("dien tho", 10)));
+        assertEquals(List.of(phone), ids(index.suggest("ĐIỆN", 10)));
+        assertEquals("Điện thoại Samsung", index.suggest("samsung", 10).get(0).name());
+    }
+
+    @Test
+    @DisplayName("TC4: Đổi tên / xóa sản phẩm thì gợi ý cập nhật theo")
+    void testRenameAndRemove() {
+        ProductAutocompleteIndex index = newIndex(100);
+        UUID id = UUID.randomUUID();
+        index.put(id, "Bàn phím cơ");
+        index.put(id, "Tai nghe");
+
+        assertTrue(index.suggest("ban", 10).isEmpty());
+        assertEquals(List.of(id), ids(index.suggest("tai", 10)));
+        assertEquals(1, index.size());
+
+        index.remove(id);
+        assertTrue(index.suggest("tai", 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    @DisplayName("TC5: Vượt max-products thì không thêm nữa, chỗ trống được tái sử dụng")
+    void testMaxProducts() {
+        ProductAutocompleteIndex index = newIndex(2);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        index.put(first, "Sản phẩm một");
+        index.put(second, "Sản phẩm hai");
+        index.put(third, "Sản phẩm ba");
+
+        assertEquals(2, index.size());
+        assertTrue(index.suggest("ba", 10).isEmpty());
+
+        index.remove(first);
+        index.put(third, "Sản phẩm ba");
+        assertEquals(List.of(third), ids(index.suggest("ba", 10)));
+        assertTrue(index.estimatedBytes() > 0);
+    }
+
+    @Test
+    @DisplayName("TC6: Đổi tên / xóa nhiều lần không để lại node chết, bộ nhớ không tăng mãi")
+    void testChurnReclaimsNodes() {
+        ProductAutocompleteIndex index = newIndex(100);
+        UUID kept = UUID.randomUUID();
+        UUID renamed = UUID.randomUUID();
+        index.put(kept, "Laptop Dell");
+        int baseline = index.liveNodes();
+        index.put(renamed, "Sản phẩm 0");
+        long bytes = index.estimatedBytes();
+
+        for (int i = 1; i <= 5000; i++) {
+            index.put(renamed, "Sản phẩm " + i);
+        }
+        // node / posting của tên cũ được tái sử dụng: chỉ chênh vài ký tự của tên hiện tại
+        assertTrue(index.estimatedBytes() <= bytes + 16);
+        index.remove(renamed);
+
+        assertEquals(baseline, index.liveNodes());
+        assertEquals(List.of(kept), ids(index.suggest("lap", 10)));
+        assertTrue(index.suggest("san", 10).isEmpty());
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.demo.service;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.demo.entity.Product;
+import com.example.demo.repository.ProductRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCacheTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProductCache productCache;
+    private UUID productId;
+    private Product mockProduct;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        productCache = new ProductCache(productRepository, meterRegistry, 1024 * 1024, 60);
+
+        productId = UUID.randomUUID();
+        mockProduct = new Product(productId, "Laptop Dell", 15000000.0, 10, "Laptop chính hãng");
+    }
+
+    @Test
+    @DisplayName("TC1: Lần đọc thứ hai lấy từ cache, không gọi DB")
+    void testFindById_Hit() {
+        when(productRepository.findById(productId)).thenReturn(Optional.of(mockProduct));
+
+        productCache.findById(productId);
+        Optional<Product> second = productCache.findById(productId);
+
+        assertTrue(second.isPresent());
+        verify(productRepository, times(1)).findById(productId);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("TC2: Evict xong thì đọc lại từ DB")
+    void testEvict() {
+        when(productRepository.findById(productId)).thenReturn(Optional.of(mockProduct));
+
+        productCache.findById(productId);
+        productCache.evict(productId);
+        productCache.findById(productId);
+
+        verify(productRepository, times(2)).findById(productId);
+    }
+
+    @Test
+    @DisplayName("TC3: Sản phẩm không tồn tại thì không bị cache")
+    void testFindById_NotFound() {
+        when(productRepository.findById(productId)).thenReturn(Optional.empty());
+
+        assertTrue(productCache.findById(productId).isEmpty());
+        assertTrue(productCache.findById(productId).isEmpty());
+
+        verify(productRepository, times(2)).findById(productId);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.demo.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.dto.ProductView;
+import com.example.demo.dto.UserSummary;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ProductJsonCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private ProductJsonCache jsonCache;
+    private UUID productId;
+
+    @BeforeEach
+    void setUp() {
+        jsonCache = new ProductJsonCache(objectMapper, new SimpleMeterRegistry(), true, 1024 * 1024, 256);
+        productId = UUID.randomUUID();
+    }
+
+    private ProductView view(String description, long version) {
+        return new ProductView(productId, "Laptop Dell", description, 15000000.0, 10, "ACTIVE",
+                null, OffsetDateTime.parse("2024-05-01T10:00:00Z"), null, version);
+    }
+
+    @Test
+    @DisplayName("TC1: Cùng version thì dùng lại bytes đã serialize, giống hệt Jackson")
+    void testHitSameVersion() throws IOException {
+        ProductView product = view("Laptop chính hãng", 1);
+
+        byte[] first = jsonCache.json(product);
+
+        assertSame(first, jsonCache.json(product));
+        assertArrayEquals(objectMapper.writeValueAsBytes(product), first);
+    }
+
+    @Test
+    @DisplayName("TC2: Version đổi thì serialize lại, không trả JSON cũ")
+    void testVersionChange() throws IOException {
+        byte[] before = jsonCache.json(view("Mô tả cũ", 1));
+        byte[] after = jsonCache.json(view("Mô tả mới", 2));
+
+        assertNotSame(before, after);
+        assertEquals("Mô tả mới", objectMapper.readTree(after).get("description").asText());
+    }
+
+    @Test
+    @DisplayName("TC3: Danh sách ghép từ các phần đã cache thành JSON array hợp lệ")
+    void testJsonArray() throws IOException {
+        ProductView first = view("A", 1);
+        ProductView second = new ProductView(UUID.randomUUID(), "Chuột", null, 500000.0, 5, "ACTIVE",
+                null, null, null, 3L);
+
+        JsonNode array = objectMapper.readTree(jsonCache.jsonArray(List.of(first, second)));
+
+        assertEquals(2, array.size());
+        assertEquals("Chuột", array.get(1).get("name").asText());
+        assertEquals("[]", new String(jsonCache.jsonArray(List.of())));
+    }
+
+    @Test
+    @DisplayName("TC4: Gzip chỉ khi body đủ lớn, giải nén ra đúng JSON")
+    void testGzip() throws IOException {
+        assertNull(jsonCache.gzip(view("ngắn", 1)));
+
+        ProductView large = view("x".repeat(2000), 2);
+        byte[] compressed = jsonCache.gzip(large);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(jsonCache.json(large), in.readAllBytes());
+        }
+        assertSame(compressed, jsonCache.gzip(large));
+    }
+
+    @Test
+    @DisplayName("TC5: Bản có expand người tạo không bị cache")
+    void testExpandedNotCached() {
+        ProductView expanded = view("A", 1).withCreatedByUser(new UserSummary(UUID.randomUUID(), "admin"));
+
+        assertNotSame(jsonCache.json(expanded), jsonCache.json(expanded));
+    }
+}
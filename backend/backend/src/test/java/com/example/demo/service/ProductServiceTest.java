@@ -1,8 +1,15 @@
 package com.example.demo.service;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -15,6 +22,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -24,11 +32,20 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.example.demo.dto.BulkOperationResult;
+import com.example.demo.dto.ProductBulkUpdate;
 import com.example.demo.dto.ProductDto;
 import com.example.demo.entity.Product;
 import com.example.demo.mapper.ProductMapper;
 import com.example.demo.repository.ProductRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
 
 @ExtendWith(MockitoExtension.class)
 class ProductServiceTest {
@@ -39,6 +56,21 @@ class ProductServiceTest {
     @Mock
     private ProductMapper productMapper;
 
+    @Mock
+    private ProductCache productCache;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ProductAutocompleteIndex autocompleteIndex;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     @InjectMocks
     private ProductService productService;
 
@@ -98,8 +130,8 @@ class ProductServiceTest {
     @Test
     @DisplayName("TC2: Lấy sản phẩm theo ID - Tìm thấy")
     void testGetProductById_Found() {
-        // Mock tìm thấy trong DB
-        when(productRepository.findById(productId)).thenReturn(Optional.of(mockProduct));
+        // Mock tìm thấy (qua cache đọc xuyên DB)
+        when(productCache.findById(productId)).thenReturn(Optional.of(mockProduct));
         
         // Mock convert sang DTO
         when(productMapper.toDto(mockProduct)).thenReturn(mockProductDto);
@@ -113,7 +145,7 @@ class ProductServiceTest {
     @Test
     @DisplayName("TC3: Lấy sản phẩm theo ID - Không tìm thấy")
     void testGetProductById_NotFound() {
-        when(productRepository.findById(productId)).thenReturn(Optional.empty());
+        when(productCache.findById(productId)).thenReturn(Optional.empty());
 
         Exception exception = assertThrows(RuntimeException.class, () -> {
             productService.getProductById(productId);
@@ -140,6 +172,7 @@ class ProductServiceTest {
 
         assertNotNull(result);
         verify(productRepository, times(1)).save(any(Product.class));
+        verify(productCache, times(1)).evict(productId);
     }
 
     // --- 4. Test Delete Product ---
@@ -151,6 +184,7 @@ class ProductServiceTest {
         productService.deleteProduct(productId);
 
         verify(productRepository, times(1)).deleteById(productId);
+        verify(productCache, times(1)).evict(productId);
     }
 
     @Test
@@ -184,4 +218,128 @@ class ProductServiceTest {
         assertEquals(1, resultPage.getTotalElements());
         verify(productRepository, times(1)).findAll(pageable);
     }
-}
\ No newline at end of file
+
+    // --- 6. Test Export (Streaming) ---
+    @Test
+    @DisplayName("TC8: Export NDJSON - mỗi sản phẩm một dòng")
+    void testExportProducts_Ndjson() throws IOException {
+        Product second = new Product(UUID.randomUUID(), "Chuột Logitech", 500000.0, 5, "Chuột không dây");
+        when(productRepository.streamAll()).thenReturn(Stream.of(mockProduct, second));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        productService.exportProducts(out, true);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Laptop Dell", objectMapper.readTree(lines[0]).get("name").asText());
+        assertEquals("Chuột Logitech", objectMapper.readTree(lines[1]).get("name").asText());
+    }
+
+    @Test
+    @DisplayName("TC9: Export JSON - trả về một mảng")
+    void testExportProducts_JsonArray() throws IOException {
+        when(productRepository.streamAll()).thenReturn(Stream.of(mockProduct));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        productService.exportProducts(out, false);
+
+        JsonNode array = objectMapper.readTree(out.toByteArray());
+        assertTrue(array.isArray());
+        assertEquals(1, array.size());
+        assertEquals(productId.toString(), array.get(0).get("id").asText());
+    }
+
+    @Test
+    @DisplayName("TC10: Import NDJSON - dòng hợp lệ được lưu, dòng lỗi báo theo từng dòng")
+    void testImportProducts_Ndjson() throws IOException {
+        String ndjson = "{\"name\":\"Laptop Dell\",\"price\":15000000,\"stockQuantity\":10}\n"
+                + "{\"name\":\"<script>alert(1)</script>\",\"price\":1}\n"
+                + "{\"name\":\"Chuột Logitech\",\"price\":\"abc\"}\n"
+                + "{\"name\":\"Bàn phím\",\"price\":900000,\"description\":\"Cơ\"}\n";
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ProductService.ImportSummary summary = productService.importProducts(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), out);
+
+        assertEquals(4, summary.getTotal());
+        assertEquals(2, summary.getCreated());
+        assertEquals(2, summary.getFailed());
+        verify(entityManager, times(2)).persist(any(Product.class));
+        verify(entityManager, times(1)).flush();
+
+        JsonNode result = objectMapper.readTree(out.toByteArray());
+        assertEquals("created", result.get("results").get(0).get("status").asText());
+        assertEquals("failed", result.get("results").get(1).get("status").asText());
+        assertEquals("failed", result.get("results").get(2).get("status").asText());
+        assertEquals(4, result.get("results").get(3).get("row").asInt());
+        assertEquals(2, result.get("created").asInt());
+    }
+
+    @Test
+    @DisplayName("TC11: Import JSON array - JSON hỏng thì dừng, vẫn lưu các dòng đã đọc")
+    void testImportProducts_MalformedArray() throws IOException {
+        String json = "[{\"name\":\"Laptop Dell\",\"price\":15000000}, {\"name\": ";
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ProductService.ImportSummary summary = productService.importProducts(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), out);
+
+        assertEquals(1, summary.getCreated());
+        verify(entityManager, times(1)).persist(any(Product.class));
+        JsonNode result = objectMapper.readTree(out.toByteArray());
+        assertNotNull(result.get("error"));
+        assertEquals(1, result.get("total").asInt());
+    }
+
+    @Test
+    @DisplayName("TC12: Bulk update - id trùng lấy thay đổi cuối, báo id không tồn tại")
+    void testBulkUpdate() {
+        UUID missingId = UUID.randomUUID();
+        ProductBulkUpdate first = new ProductBulkUpdate(productId, null, 100.0, null, null, null);
+        ProductBulkUpdate last = new ProductBulkUpdate(productId, null, 200.0, null, null, null);
+        ProductBulkUpdate missing = new ProductBulkUpdate(missingId, null, 300.0, null, null, null);
+        when(productRepository.bulkUpdate(List.of(last, missing))).thenReturn(List.of(productId));
+
+        BulkOperationResult result = productService.bulkUpdate(List.of(first, last, missing));
+
+        assertEquals(1, result.getAffected());
+        assertEquals(List.of(missingId), result.getMissingIds());
+        verify(productCache).evict(productId);
+        verify(productCache, never()).evict(missingId);
+    }
+
+    @Test
+    @DisplayName("TC13: Bulk delete - 1 câu lệnh, báo id không tồn tại")
+    void testBulkDelete() {
+        UUID missingId = UUID.randomUUID();
+        when(productRepository.bulkDelete(Set.of(productId, missingId))).thenReturn(List.of(productId));
+
+        BulkOperationResult result = productService.bulkDelete(List.of(productId, missingId));
+
+        assertEquals(1, result.getAffected());
+        assertEquals(List.of(missingId), result.getMissingIds());
+        verify(productCache).evict(productId);
+        verify(productRepository, never()).deleteById(any());
+    }
+
+    @Test
+    @DisplayName("TC14: Bulk delete trong transaction - chỉ bỏ cache và sửa chỉ mục sau khi commit")
+    void testBulkDelete_EvictsAfterCommit() {
+        when(productRepository.bulkDelete(Set.of(productId))).thenReturn(List.of(productId));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            productService.bulkDelete(List.of(productId));
+
+            verify(productCache, never()).evict(any());
+            verify(autocompleteIndex, never()).remove(any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(productCache).evict(productId);
+        verify(autocompleteIndex).remove(productId);
+    }
+}
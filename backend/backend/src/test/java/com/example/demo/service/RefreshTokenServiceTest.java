@@ -0,0 +1,85 @@
+package com.example.demo.service;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.demo.entity.RefreshToken;
+import com.example.demo.entity.User;
+import com.example.demo.repository.RefreshTokenRepository;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private RefreshTokenService refreshTokenService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, 30);
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("lam123");
+    }
+
+    @Test
+    @DisplayName("TC1: Rotate token hợp lệ - xóa token cũ và cấp token mới")
+    void testRotate_Success() {
+        RefreshToken stored = new RefreshToken(RefreshTokenService.hash("old-token"), user,
+                OffsetDateTime.now().plusDays(1));
+        stored.setId(UUID.randomUUID());
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("old-token")))
+                .thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.deleteByIdReturningCount(stored.getId())).thenReturn(1);
+
+        Optional<RefreshTokenService.Rotation> rotation = refreshTokenService.rotate("old-token");
+
+        assertTrue(rotation.isPresent());
+        assertEquals(user, rotation.get().user());
+        assertNotEquals("old-token", rotation.get().refreshToken());
+        verify(refreshTokenRepository).save(any(RefreshToken.class));
+    }
+
+    @Test
+    @DisplayName("TC2: Token đã bị dùng (request khác xóa trước) thì trả rỗng")
+    void testRotate_AlreadyUsed() {
+        RefreshToken stored = new RefreshToken(RefreshTokenService.hash("old-token"), user,
+                OffsetDateTime.now().plusDays(1));
+        stored.setId(UUID.randomUUID());
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.deleteByIdReturningCount(stored.getId())).thenReturn(0);
+
+        assertTrue(refreshTokenService.rotate("old-token").isEmpty());
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+
+    @Test
+    @DisplayName("TC3: Token hết hạn thì trả rỗng")
+    void testRotate_Expired() {
+        RefreshToken stored = new RefreshToken(RefreshTokenService.hash("old-token"), user,
+                OffsetDateTime.now().minusMinutes(1));
+        stored.setId(UUID.randomUUID());
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.deleteByIdReturningCount(stored.getId())).thenReturn(1);
+
+        assertTrue(refreshTokenService.rotate("old-token").isEmpty());
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+}
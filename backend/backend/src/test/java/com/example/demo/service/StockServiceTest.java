@@ -0,0 +1,109 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.demo.repository.ProductRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class StockServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductCache productCache;
+
+    private final UUID productId = UUID.randomUUID();
+
+    private StockService newService(boolean batching) {
+        return new StockService(productRepository, productCache, new SimpleMeterRegistry(), batching, 4);
+    }
+
+    @Test
+    @DisplayName("TC1: Đủ hàng thì giữ được và xóa cache, thiếu hàng thì không")
+    void testReserveDirect() {
+        StockService stockService = newService(false);
+        when(productRepository.reserveStock(productId, 2)).thenReturn(1);
+        when(productRepository.reserveStock(productId, 100)).thenReturn(0);
+
+        assertTrue(stockService.reserve(productId, 2));
+        assertFalse(stockService.reserve(productId, 100));
+        verify(productCache).evict(productId);
+    }
+
+    @Test
+    @DisplayName("TC2: Số lượng không hợp lệ thì báo lỗi, không gọi DB")
+    void testReserveInvalidQuantity() {
+        StockService stockService = newService(true);
+
+        assertThrows(IllegalArgumentException.class, () -> stockService.reserve(productId, 0));
+        verify(productRepository, never()).reserveStock(eq(productId), anyInt());
+    }
+
+    @Test
+    @DisplayName("TC3: Batching - nhiều người mua cùng lúc không bán vượt tồn kho")
+    void testBatchedReserveUnderConcurrency() throws Exception {
+        AtomicInteger stock = new AtomicInteger(30);
+        // giả lập UPDATE ... WHERE stock_quantity >= ? (nguyên tử)
+        when(productRepository.reserveStock(eq(productId), anyInt())).thenAnswer(invocation -> {
+            int quantity = invocation.getArgument(1);
+            synchronized (stock) {
+                if (stock.get() < quantity) {
+                    return 0;
+                }
+                stock.addAndGet(-quantity);
+                return 1;
+            }
+        });
+        StockService stockService = newService(true);
+
+        int buyers = 50;
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < buyers; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return stockService.reserve(productId, 1);
+                }));
+            }
+            start.countDown();
+
+            int reserved = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    reserved++;
+                }
+            }
+            assertEquals(30, reserved);
+            assertEquals(0, stock.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
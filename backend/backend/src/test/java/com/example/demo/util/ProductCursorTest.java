@@ -0,0 +1,52 @@
+package com.example.demo.util;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.entity.Product;
+
+class ProductCursorTest {
+
+    @Test
+    @DisplayName("TC1: Encode rồi decode trả về đúng cursor")
+    void testRoundTrip() {
+        Product product = new Product();
+        product.setId(UUID.randomUUID());
+        product.setCreatedAt(OffsetDateTime.of(2025, 1, 2, 3, 4, 5, 123456000, ZoneOffset.ofHours(7)));
+
+        ProductCursor cursor = ProductCursor.of(product);
+        ProductCursor decoded = ProductCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    @DisplayName("TC2: Không có cursor thì là trang đầu")
+    void testDecodeBlank() {
+        assertNull(ProductCursor.decode(null));
+        assertNull(ProductCursor.decode(""));
+    }
+
+    @Test
+    @DisplayName("TC3: Cursor sai định dạng bị từ chối")
+    void testDecodeMalformed() {
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode("%%%"));
+    }
+
+    @Test
+    @DisplayName("TC4: Dòng không có createdAt thì báo lỗi rõ ràng, không NPE")
+    void testEncodeWithoutCreatedAt() {
+        Product product = new Product();
+        product.setId(UUID.randomUUID());
+
+        assertThrows(IllegalStateException.class, () -> ProductCursor.of(product).encode());
+    }
+}
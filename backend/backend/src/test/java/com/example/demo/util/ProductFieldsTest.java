@@ -0,0 +1,75 @@
+package com.example.demo.util;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.dto.ProductView;
+import com.example.demo.dto.UserSummary;
+import com.example.demo.entity.Product;
+import com.example.demo.entity.User;
+
+class ProductFieldsTest {
+
+    @Test
+    @DisplayName("TC1: Không truyền fields thì trả về tất cả")
+    void testParseDefault() {
+        assertNull(ProductFields.parse(null));
+        assertNull(ProductFields.parse("  "));
+    }
+
+    @Test
+    @DisplayName("TC2: Giữ thứ tự yêu cầu, bỏ trùng và khoảng trắng")
+    void testParseOrder() {
+        assertEquals(List.of("price", "id", "name"), ProductFields.parse(" price,id, name ,id,"));
+        assertEquals("p.createdByUser.id", ProductFields.jpqlPath("createdBy"));
+    }
+
+    @Test
+    @DisplayName("TC3: Field lạ (kể cả thử chèn JPQL) thì báo lỗi")
+    void testParseUnknown() {
+        assertThrows(IllegalArgumentException.class, () -> ProductFields.parse("id,passwordHash"));
+        assertThrows(IllegalArgumentException.class, () -> ProductFields.parse("id) FROM User u --"));
+        assertThrows(IllegalArgumentException.class, () -> ProductFields.parse(",,"));
+    }
+
+    @Test
+    @DisplayName("TC4: Chỉ trả các field được chọn, người tạo chỉ là id")
+    void testSelect() {
+        UUID productId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        Product product = new Product(productId, "Laptop Dell", 15000000.0, 10, "Laptop chính hãng");
+        product.setCreatedByUser(new User(userId, "admin", "$2a$10$hash"));
+        product.setCreatedAt(OffsetDateTime.parse("2024-05-01T10:00:00Z"));
+        product.setVersion(2L);
+
+        ProductView view = ProductView.of(product);
+        Map<String, Object> selected = ProductFields.select(view, List.of("name", "createdBy", "version"));
+
+        assertEquals(List.of("name", "createdBy", "version"), List.copyOf(selected.keySet()));
+        assertEquals("Laptop Dell", selected.get("name"));
+        assertEquals(userId, selected.get("createdBy"));
+        assertEquals(2L, selected.get("version"));
+    }
+
+    @Test
+    @DisplayName("TC5: expand=createdBy chỉ gắn thêm người tạo, không đổi các field khác")
+    void testWithCreatedByUser() {
+        UUID userId = UUID.randomUUID();
+        ProductView view = new ProductView(UUID.randomUUID(), "Chuột Logitech", null, 500000.0, 5,
+                "ACTIVE", userId, null, null, 1L);
+
+        ProductView expanded = view.withCreatedByUser(new UserSummary(userId, "admin"));
+
+        assertNull(view.createdByUser());
+        assertEquals("admin", expanded.createdByUser().username());
+        assertEquals(view, expanded.withCreatedByUser(null));
+    }
+}
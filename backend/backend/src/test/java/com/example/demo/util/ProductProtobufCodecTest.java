@@ -0,0 +1,76 @@
+package com.example.demo.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.dto.ProductView;
+import com.example.demo.dto.UserSummary;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+
+class ProductProtobufCodecTest {
+
+    private static final OffsetDateTime CREATED_AT = OffsetDateTime.of(2025, 1, 2, 3, 4, 5, 123456000, ZoneOffset.UTC);
+
+    @Test
+    @DisplayName("TC1: Encode rồi decode danh sách trả về đúng dữ liệu, kể cả người tạo đã expand")
+    void testListRoundTrip() throws IOException {
+        UUID creator = UUID.randomUUID();
+        List<ProductView> page = List.of(
+                new ProductView(UUID.randomUUID(), "Laptop", "Mỏng nhẹ", 25990000.0, 15, "ACTIVE",
+                        creator, CREATED_AT, CREATED_AT.plusHours(1), 3L),
+                new ProductView(UUID.randomUUID(), "Chuột", "", 0.0, 0, "INACTIVE",
+                        creator, CREATED_AT, CREATED_AT, 0L, new UserSummary(creator, "admin")));
+
+        byte[] bytes = encode(page);
+
+        assertEquals(page, ProductProtobufCodec.readList(CodedInputStream.newInstance(bytes)));
+    }
+
+    @Test
+    @DisplayName("TC2: Field null không được ghi và decode lại thành null")
+    void testNullFields() throws IOException {
+        ProductView view = new ProductView(UUID.randomUUID(), "Laptop", null, null, null, null,
+                null, null, null, null);
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(buffer);
+        ProductProtobufCodec.write(view, out);
+        out.flush();
+        ProductView decoded = ProductProtobufCodec.read(CodedInputStream.newInstance(buffer.toByteArray()));
+
+        assertEquals(view, decoded);
+        assertNull(decoded.createdByUser());
+    }
+
+    @Test
+    @DisplayName("TC3: Thời gian giữ nguyên thời điểm (chuyển về UTC)")
+    void testTimestampOffset() throws IOException {
+        OffsetDateTime local = CREATED_AT.withOffsetSameInstant(ZoneOffset.ofHours(7));
+        ProductView view = new ProductView(UUID.randomUUID(), "Laptop", null, null, null, null,
+                null, local, local, 1L);
+
+        ProductView decoded = ProductProtobufCodec.readList(CodedInputStream.newInstance(encode(List.of(view)))).get(0);
+
+        assertTrue(local.isEqual(decoded.createdAt()));
+        assertEquals(ZoneOffset.UTC, decoded.createdAt().getOffset());
+    }
+
+    private static byte[] encode(List<ProductView> page) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(buffer);
+        ProductProtobufCodec.writeList(page, out);
+        out.flush();
+        return buffer.toByteArray();
+    }
+}
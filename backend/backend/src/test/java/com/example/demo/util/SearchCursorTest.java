@@ -0,0 +1,37 @@
+package com.example.demo.util;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SearchCursorTest {
+
+    @Test
+    @DisplayName("TC1: Encode rồi decode giữ nguyên score (float) và id")
+    void testRoundTrip() {
+        SearchCursor cursor = new SearchCursor(0.6079271f, UUID.randomUUID());
+
+        SearchCursor decoded = SearchCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    @DisplayName("TC2: Không có cursor thì là trang đầu")
+    void testBlank() {
+        assertNull(SearchCursor.decode(null));
+        assertNull(SearchCursor.decode(""));
+    }
+
+    @Test
+    @DisplayName("TC3: Cursor hỏng thì báo lỗi")
+    void testMalformed() {
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(
+                new SearchCursor(Float.NaN, UUID.randomUUID()).encode()));
+    }
+}
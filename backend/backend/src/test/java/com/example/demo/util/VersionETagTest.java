@@ -0,0 +1,35 @@
+package com.example.demo.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class VersionETagTest {
+
+    @Test
+    @DisplayName("TC1: ETag yếu sinh từ version")
+    void testFormat() {
+        assertEquals("W/\"3\"", VersionETag.of(3L));
+        assertEquals("W/\"0\"", VersionETag.of(null));
+    }
+
+    @Test
+    @DisplayName("TC2: So khớp yếu, danh sách nhiều tag và *")
+    void testMatches() {
+        assertTrue(VersionETag.matches("W/\"3\"", 3L));
+        assertTrue(VersionETag.matches("\"3\"", 3L));
+        assertTrue(VersionETag.matches("W/\"1\", W/\"3\"", 3L));
+        assertTrue(VersionETag.matches("*", 7L));
+    }
+
+    @Test
+    @DisplayName("TC3: Version khác hoặc header rỗng thì không khớp")
+    void testNoMatch() {
+        assertFalse(VersionETag.matches("W/\"2\"", 3L));
+        assertFalse(VersionETag.matches("W/\"33\"", 3L));
+        assertFalse(VersionETag.matches("3", 3L));
+        assertFalse(VersionETag.matches(null, 3L));
+    }
+}
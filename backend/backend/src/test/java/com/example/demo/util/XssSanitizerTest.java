@@ -0,0 +1,63 @@
+package com.example.demo.util;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class XssSanitizerTest {
+
+    @AfterEach
+    void restoreDefaults() {
+        XssSanitizer.configurePatterns(List.of());
+    }
+
+    @Test
+    @DisplayName("TC1: Tên / mô tả bình thường thì hợp lệ")
+    void testCleanInput() {
+        assertFalse(XssSanitizer.containsDangerousContent("Laptop Dell XPS 13 - 16GB RAM"));
+        assertFalse(XssSanitizer.containsDangerousContent("Iron load = 5kg, giá < 100$ & bảo hành 12 tháng"));
+        assertTrue(XssSanitizer.validateProduct("Laptop", null).isValid());
+    }
+
+    @Test
+    @DisplayName("TC2: Phát hiện pattern không phân biệt hoa thường")
+    void testCaseInsensitive() {
+        assertTrue(XssSanitizer.containsDangerousContent("<SCRIPT>alert(1)</SCRIPT>"));
+        assertTrue(XssSanitizer.containsDangerousContent("<a href=\"JavaScript:alert(1)\">x</a>"));
+        assertTrue(XssSanitizer.containsDangerousContent("<img src=x OnError=alert(1)>"));
+    }
+
+    @Test
+    @DisplayName("TC3: Phát hiện biến thể che giấu bằng entity và khoảng trắng")
+    void testObfuscated() {
+        assertTrue(XssSanitizer.containsDangerousContent("<a href=\"&#106;avascript:alert(1)\">"));
+        assertTrue(XssSanitizer.containsDangerousContent("<a href=\"&#x6A;ava&#x73;cript&colon;alert(1)\">"));
+        assertTrue(XssSanitizer.containsDangerousContent("<a href=\"java\tscript:alert(1)\">"));
+        assertTrue(XssSanitizer.containsDangerousContent("<img src=x onerror =alert(1)>"));
+        assertTrue(XssSanitizer.containsDangerousContent("&lt;script&gt;alert(1)"));
+    }
+
+    @Test
+    @DisplayName("TC4: Mô tả chứa script thì không hợp lệ")
+    void testDescriptionValidated() {
+        XssSanitizer.ValidationResult result =
+                XssSanitizer.validateProduct("Laptop", "Giảm giá <iframe src=//evil>");
+
+        assertFalse(result.isValid());
+    }
+
+    @Test
+    @DisplayName("TC5: Cấu hình lại danh sách pattern")
+    void testConfigurePatterns() {
+        XssSanitizer.configurePatterns(List.of("<svg"));
+
+        assertTrue(XssSanitizer.containsDangerousContent("<SVG onload=alert(1)>"));
+        assertFalse(XssSanitizer.containsDangerousContent("<script>alert(1)</script>"));
+        assertThrows(IllegalArgumentException.class, () -> XssSanitizer.configurePatterns(List.of(" ")));
+    }
+}
@@ -29,7 +29,7 @@ describe("Product - Create / Edit / Delete", () => {
     let getProductsCall = 0;
 
     // Lần 1: vào trang -> list rỗng, Lần 2: sau khi tạo -> có sản phẩm mới
-    cy.intercept("GET", "**/api/products", (req) => {
+    cy.intercept({ method: "GET", pathname: "/api/products" }, (req) => {
       getProductsCall += 1;
       if (getProductsCall === 1) {
         req.reply({ statusCode: 200, body: [] });
@@ -21,7 +21,7 @@ describe("Product - E2E CRUD Scenarios", () => {
     // mock API get products để luôn có data ổn định
     let products = [...baseProducts];
 
-    cy.intercept("GET", "**/api/products", (req) => {
+    cy.intercept({ method: "GET", pathname: "/api/products" }, (req) => {
       req.reply({
         statusCode: 200,
         body: products,
@@ -19,18 +19,33 @@ function authHeaders() {
   }
 }
 
+// Số sản phẩm mỗi trang khi tải danh sách (tối đa app.products.page.max-size của backend)
+const PAGE_SIZE = 500
+
+// Backend trả từng trang; còn trang sau thì có header X-Next-Cursor -> đọc tiếp tới hết
 export async function getProducts(): Promise<ProductDto[]> {
-  const res = await fetch(`${API_BASE_URL}/api/products`, {
-    method: 'GET',
-    headers: authHeaders(),
-  })
+  const products: ProductDto[] = []
+  let cursor: string | null = null
 
-  if (!res.ok) {
-    const text = await res.text().catch(() => '')
-    throw new Error(text || 'Failed to fetch products')
-  }
+  do {
+    const params = new URLSearchParams({ limit: String(PAGE_SIZE) })
+    if (cursor) params.set('cursor', cursor)
 
-  return res.json()
+    const res = await fetch(`${API_BASE_URL}/api/products?${params}`, {
+      method: 'GET',
+      headers: authHeaders(),
+    })
+
+    if (!res.ok) {
+      const text = await res.text().catch(() => '')
+      throw new Error(text || 'Failed to fetch products')
+    }
+
+    products.push(...(await res.json()))
+    cursor = res.headers?.get('X-Next-Cursor') ?? null
+  } while (cursor)
+
+  return products
 }
 
 export async function createProduct(payload: Omit<ProductDto, 'id'>): Promise<ProductDto> {
@@ -0,0 +1,40 @@
+import { vi } from "vitest";
+import { getProducts } from "../services/productService";
+
+function page(body: unknown[], nextCursor?: string) {
+    return {
+        ok: true,
+        json: () => Promise.resolve(body),
+        headers: new Headers(nextCursor ? { "X-Next-Cursor": nextCursor } : {}),
+    };
+}
+
+describe("productService.getProducts", () => {
+    afterEach(() => {
+        vi.unstubAllGlobals();
+    });
+
+    // TC1: Đọc tiếp theo X-Next-Cursor cho tới trang cuối
+    test("Đọc hết các trang theo X-Next-Cursor", async () => {
+        const fetchMock = vi.fn()
+            .mockResolvedValueOnce(page([{ id: "1" }, { id: "2" }], "abc"))
+            .mockResolvedValueOnce(page([{ id: "3" }]));
+        vi.stubGlobal("fetch", fetchMock);
+
+        const products = await getProducts();
+
+        expect(products.map((p) => p.id)).toEqual(["1", "2", "3"]);
+        expect(fetchMock).toHaveBeenCalledTimes(2);
+        expect(fetchMock.mock.calls[0][0]).not.toContain("cursor=");
+        expect(fetchMock.mock.calls[1][0]).toContain("cursor=abc");
+    });
+
+    // TC2: Lỗi ở trang sau thì báo lỗi, không trả danh sách thiếu
+    test("Lỗi ở trang sau thì throw", async () => {
+        vi.stubGlobal("fetch", vi.fn()
+            .mockResolvedValueOnce(page([{ id: "1" }], "abc"))
+            .mockResolvedValueOnce({ ok: false, text: () => Promise.resolve("boom") }));
+
+        await expect(getProducts()).rejects.toThrow("boom");
+    });
+});